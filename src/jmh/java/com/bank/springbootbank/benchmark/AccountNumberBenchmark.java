@@ -0,0 +1,65 @@
+package com.bank.springbootbank.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.springbootbank.service.AccountNumberGenerator;
+import com.bank.springbootbank.service.SequenceBlockAccountNumberGenerator;
+
+/**
+ * Account-number generation. "memory" measures the generator alone (blocks from a counter),
+ * "sequence" reserves blocks from the real account_number_seq through the application context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountNumberBenchmark {
+    @Param({"memory", "sequence"})
+    public String blockSource;
+
+    @Param({"1000"})
+    public int blockSize;
+
+    private BenchmarkContext context;
+    private AccountNumberGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (blockSource.equals("sequence")) {
+            context = BenchmarkContext.start("h2");
+            generator = context.bean(AccountNumberGenerator.class);
+        } else {
+            AtomicLong blocks = new AtomicLong();
+            generator = new SequenceBlockAccountNumberGenerator(() -> blocks.getAndAdd(blockSize), blockSize, true);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public String nextAccountNumber() {
+        return generator.nextAccountNumber();
+    }
+}
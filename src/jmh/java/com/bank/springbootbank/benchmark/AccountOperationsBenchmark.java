@@ -0,0 +1,81 @@
+package com.bank.springbootbank.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.springbootbank.model.Transaction;
+import com.bank.springbootbank.service.BankService;
+
+/**
+ * Balance-changing paths. Few accounts means threads fight over the same rows (and lock stripes),
+ * many accounts shows the uncontended cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountOperationsBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+
+    @Param({"h2"})
+    public String database;
+
+    @Param({"16", "1024"})
+    public int accounts;
+
+    private BenchmarkContext context;
+    private BankService bankService;
+    private List<String> accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(database);
+        bankService = context.bean(BankService.class);
+        accountNumbers = context.openFundedAccounts(accounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        return bankService.deposit(randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    public Transaction withdraw() {
+        return bankService.withdraw(randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    public Transaction transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+        return bankService.transfer(accountNumbers.get(from), accountNumbers.get(to), AMOUNT);
+    }
+
+    private String randomAccount() {
+        return accountNumbers.get(ThreadLocalRandom.current().nextInt(accounts));
+    }
+}
@@ -0,0 +1,80 @@
+package com.bank.springbootbank.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bank.springbootbank.SpringBootBankApplication;
+import com.bank.springbootbank.model.TransactionType;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.service.BankService;
+import com.bank.springbootbank.service.BulkPostingService;
+import com.bank.springbootbank.service.BulkPostingService.Posting;
+
+/**
+ * Boots the application without the console for one benchmark trial and seeds it.
+ * "h2" gets a fresh in-memory database per trial, "postgres" uses benchmark-postgres.properties.
+ */
+final class BenchmarkContext implements AutoCloseable {
+    static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000000.00");
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    static BenchmarkContext start(String database) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SpringBootBankApplication.class)
+                .properties("spring.config.name=benchmark");
+        switch (database) {
+            case "h2" -> builder.properties("spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                    + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+            case "postgres" -> builder.profiles("postgres");
+            default -> throw new IllegalArgumentException("Unknown benchmark database: " + database);
+        }
+        return new BenchmarkContext(builder.run());
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    User newUser(String username) {
+        return bean(BankService.class).registerUser(username, "secret", "Benchmark User",
+                "1 Main St", "555-0100", username + "@bench.bank.com");
+    }
+
+    /**
+     * Opens checking accounts for one user, funded well enough that withdrawals and transfers never run dry.
+     */
+    List<String> openFundedAccounts(int count) {
+        BankService bankService = bean(BankService.class);
+        User owner = newUser("owner-" + UUID.randomUUID());
+        List<String> accountNumbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accountNumbers.add(bankService.createAccount(owner, 1).getAccountNumber());
+        }
+        bean(BulkPostingService.class).post(accountNumbers.stream()
+                .map(accountNumber -> new Posting(accountNumber, TransactionType.DEPOSIT, OPENING_BALANCE, "Opening balance")));
+        return accountNumbers;
+    }
+
+    /**
+     * Gives an account a history of the given length through the bulk path, which is much faster than deposit().
+     */
+    void seedHistory(String accountNumber, int transactions) {
+        bean(BulkPostingService.class).post(IntStream.range(0, transactions)
+                .mapToObj(i -> new Posting(accountNumber, TransactionType.DEPOSIT, BigDecimal.ONE, "Seed " + i)));
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
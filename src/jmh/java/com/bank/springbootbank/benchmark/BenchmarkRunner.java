@@ -0,0 +1,44 @@
+package com.bank.springbootbank.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the selected benchmarks once per thread count and writes one JSON result file per run
+ * (jmh-t1.json, jmh-t4.json, ...), so two builds can be diffed file by file.
+ *
+ * Arguments: output directory, comma-separated thread counts, include regex, then any JMH options.
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Usage: BenchmarkRunner <output dir> <threads,...> <include regex> [jmh options]");
+        }
+        Path outputDirectory = Files.createDirectories(Path.of(args[0]));
+        String[] threadCounts = args[1].split(",");
+        String include = args[2];
+        String[] jmhArgs = args.length > 3 && !args[3].isBlank() ? args[3].trim().split("\\s+") : new String[0];
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs);
+
+        for (String threadCount : threadCounts) {
+            int threads = Integer.parseInt(threadCount.trim());
+            Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .include(include)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(outputDirectory.resolve("jmh-t" + threads + ".json").toString())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
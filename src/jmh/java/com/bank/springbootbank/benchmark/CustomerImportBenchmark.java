@@ -0,0 +1,90 @@
+package com.bank.springbootbank.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.springbootbank.service.CustomerImportService;
+import com.bank.springbootbank.service.CustomerImportService.ImportReport;
+import com.bank.springbootbank.service.PasswordHasher;
+
+/**
+ * Imports a file of new customers, each with a checking and a savings account. Customers per minute
+ * is customers * 60000 / score.
+ *
+ * With passwords=hashed the file carries bcrypt hashes as a migrated portfolio would, so the score
+ * is the import pipeline itself. With passwords=plain every row is hashed at bank.passwords.bcrypt-cost
+ * on the bank.import.threads, which then dominates: expect minutes per invocation at 20,000 customers,
+ * or pass -p customers=2000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CustomerImportBenchmark {
+    @Param({"h2"})
+    public String database;
+
+    @Param({"20000"})
+    public int customers;
+
+    @Param({"1000"})
+    public int chunkSize;
+
+    @Param({"hashed", "plain"})
+    public String passwords;
+
+    private BenchmarkContext context;
+    private CustomerImportService customerImportService;
+    private String password;
+    private String file;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(database);
+        customerImportService = context.bean(CustomerImportService.class);
+        password = passwords.equals("plain") ? "secret" : context.bean(PasswordHasher.class).hash("secret");
+    }
+
+    // Every invocation imports customers nobody has seen yet
+    @Setup(Level.Invocation)
+    public void nextFile() {
+        run++;
+        StringBuilder csv = new StringBuilder(customers * 150)
+                .append("username,password,full_name,address,phone_number,email,accounts\n");
+        for (int i = 0; i < customers; i++) {
+            String username = "import-" + run + "-" + i;
+            csv.append(username).append(',').append(password).append(",Imported Customer,\"1 Main St, Springfield\",555-0100,")
+                    .append(username).append("@bench.bank.com,CHECKING;SAVINGS\n");
+        }
+        file = csv.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ImportReport importCustomers() throws IOException {
+        return customerImportService.importCustomers(new BufferedReader(new StringReader(file)), chunkSize);
+    }
+}
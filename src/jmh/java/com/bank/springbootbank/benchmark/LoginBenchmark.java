@@ -0,0 +1,61 @@
+package com.bank.springbootbank.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.springbootbank.service.PasswordHasher;
+
+/**
+ * Password verifications per second through PasswordHasher, per bcrypt cost factor.
+ * With the default single pool thread the score is logins per second per core; a node
+ * handles roughly that times its cores. To measure a whole node instead, run with
+ * -Djmh.threads=<2 x cores> and -Djmh.args="-p poolThreads=<cores>".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoginBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10", "12"})
+    public int cost;
+
+    @Param({"1"})
+    public int poolThreads;
+
+    private PasswordHasher passwordHasher;
+    private String storedHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        passwordHasher = new PasswordHasher(cost, poolThreads, 1024, Duration.ofMinutes(1));
+        storedHash = passwordHasher.hash(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordHasher.close();
+    }
+
+    @Benchmark
+    public PasswordHasher.Verification verify() {
+        return passwordHasher.verify(PASSWORD, storedHash);
+    }
+}
@@ -0,0 +1,103 @@
+package com.bank.springbootbank.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.springbootbank.model.Money;
+
+/**
+ * The in-memory arithmetic of a deposit (APY tier pick, credit) and a transfer (funds check,
+ * debit, credit), on BigDecimal as before and on Money. Both start from the BigDecimal the API
+ * hands over, so the money variants include the one conversion at the edge.
+ * Run with -Djmh.args="-prof gc" and compare gc.alloc.rate.norm (bytes per operation).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyBenchmark {
+    private static final BigDecimal TIER_3_MINIMUM = new BigDecimal("10000");
+    private static final BigDecimal TIER_2_MINIMUM = new BigDecimal("5000");
+    private static final BigDecimal TIER_1_MINIMUM = new BigDecimal("1000");
+    private static final Money TIER_3_MINIMUM_MONEY = Money.of(TIER_3_MINIMUM);
+    private static final Money TIER_2_MINIMUM_MONEY = Money.of(TIER_2_MINIMUM);
+    private static final Money TIER_1_MINIMUM_MONEY = Money.of(TIER_1_MINIMUM);
+    private static final BigDecimal[] APY = {
+            new BigDecimal("0.02"), new BigDecimal("0.03"), new BigDecimal("0.04"), new BigDecimal("0.05")};
+
+    // As they arrive from JSON, scale 2
+    private final BigDecimal[] amounts = {
+            new BigDecimal("12.50"), new BigDecimal("1250.00"), new BigDecimal("7300.25"), new BigDecimal("15000.00")};
+    private int next;
+
+    private BigDecimal balance = new BigDecimal("1000000.00");
+    private BigDecimal otherBalance = new BigDecimal("1000000.00");
+    private Money balanceMoney = Money.of(balance);
+    private Money otherBalanceMoney = Money.of(otherBalance);
+
+    private BigDecimal nextAmount() {
+        next = (next + 1) & 3;
+        return amounts[next];
+    }
+
+    @Benchmark
+    public BigDecimal depositBigDecimal() {
+        BigDecimal amount = nextAmount();
+        BigDecimal apy = amount.compareTo(TIER_3_MINIMUM) >= 0 ? APY[3]
+                : amount.compareTo(TIER_2_MINIMUM) >= 0 ? APY[2]
+                : amount.compareTo(TIER_1_MINIMUM) >= 0 ? APY[1] : APY[0];
+        balance = balance.add(amount);
+        return apy;
+    }
+
+    @Benchmark
+    public BigDecimal depositMoney() {
+        Money amount = Money.of(nextAmount());
+        BigDecimal apy = amount.isAtLeast(TIER_3_MINIMUM_MONEY) ? APY[3]
+                : amount.isAtLeast(TIER_2_MINIMUM_MONEY) ? APY[2]
+                : amount.isAtLeast(TIER_1_MINIMUM_MONEY) ? APY[1] : APY[0];
+        balanceMoney = balanceMoney.plus(amount);
+        return apy;
+    }
+
+    @Benchmark
+    public boolean transferBigDecimal() {
+        BigDecimal amount = nextAmount();
+        if (balance.compareTo(amount) < 0) {
+            return false;
+        }
+        balance = balance.subtract(amount);
+        otherBalance = otherBalance.add(amount);
+        // Keep the balances from drifting off over the run
+        BigDecimal swap = balance;
+        balance = otherBalance;
+        otherBalance = swap;
+        return true;
+    }
+
+    @Benchmark
+    public boolean transferMoney() {
+        Money amount = Money.of(nextAmount());
+        if (balanceMoney.isLessThan(amount)) {
+            return false;
+        }
+        balanceMoney = balanceMoney.minus(amount);
+        otherBalanceMoney = otherBalanceMoney.plus(amount);
+        Money swap = balanceMoney;
+        balanceMoney = otherBalanceMoney;
+        otherBalanceMoney = swap;
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+package com.bank.springbootbank.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.service.BankService;
+
+/**
+ * registerUser against a users table that already holds existingUsers rows, so the username and
+ * email uniqueness checks run over a realistic amount of data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationBenchmark {
+    @Param({"h2"})
+    public String database;
+
+    @Param({"100", "10000"})
+    public int existingUsers;
+
+    private final AtomicLong usernames = new AtomicLong();
+    private BenchmarkContext context;
+    private BankService bankService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(database);
+        bankService = context.bean(BankService.class);
+        for (int i = 0; i < existingUsers; i++) {
+            context.newUser("existing-" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User registerUser() {
+        long n = usernames.incrementAndGet();
+        return bankService.registerUser("bench-" + n, "secret", "Benchmark User " + n,
+                "1 Main St", "555-0100", "bench-" + n + "@bench.bank.com");
+    }
+}
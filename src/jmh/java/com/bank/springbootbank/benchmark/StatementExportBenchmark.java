@@ -0,0 +1,77 @@
+package com.bank.springbootbank.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.springbootbank.service.StatementExportService;
+import com.bank.springbootbank.service.StatementExportService.ExportReport;
+import com.bank.springbootbank.service.StatementExportService.Format;
+
+/**
+ * One full statement run over accounts x linesPerAccount ledger lines. Rows per second is
+ * (accounts * 2 + lines) / score, the opening and closing records count as rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StatementExportBenchmark {
+    @Param({"h2"})
+    public String database;
+
+    @Param({"1000"})
+    public int accounts;
+
+    @Param({"200"})
+    public int linesPerAccount;
+
+    @Param({"CSV", "FIXED_WIDTH"})
+    public Format format;
+
+    @Param({"250"})
+    public int partitionSize;
+
+    private BenchmarkContext context;
+    private StatementExportService statementExportService;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(database);
+        statementExportService = context.bean(StatementExportService.class);
+        List<String> accountNumbers = context.openFundedAccounts(accounts);
+        for (String accountNumber : accountNumbers) {
+            context.seedHistory(accountNumber, linesPerAccount - 1);
+        }
+        from = LocalDate.now();
+        to = from.plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExportReport export() {
+        return statementExportService.export(from, to, format, partitionSize);
+    }
+}
@@ -0,0 +1,75 @@
+package com.bank.springbootbank.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.springbootbank.dto.TransactionPage;
+import com.bank.springbootbank.service.BankService;
+
+/**
+ * History paging on one account. With keyset paging a page from the middle of a long history
+ * should cost the same as the first page, this is where a regression to offset paging shows up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionHistoryBenchmark {
+    @Param({"h2"})
+    public String database;
+
+    @Param({"100", "100000"})
+    public int historySize;
+
+    @Param({"20"})
+    public int pageSize;
+
+    private BenchmarkContext context;
+    private BankService bankService;
+    private String accountNumber;
+    private String middlePageToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(database);
+        bankService = context.bean(BankService.class);
+        accountNumber = context.openFundedAccounts(1).get(0);
+        context.seedHistory(accountNumber, historySize);
+
+        TransactionPage page = bankService.getTransactionHistory(accountNumber, pageSize, null);
+        for (int skipped = pageSize; skipped < historySize / 2 && page.hasMore(); skipped += pageSize) {
+            page = bankService.getTransactionHistory(accountNumber, pageSize, page.nextPageToken());
+        }
+        middlePageToken = page.nextPageToken();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionPage firstPage() {
+        return bankService.getTransactionHistory(accountNumber, pageSize, null);
+    }
+
+    @Benchmark
+    public TransactionPage middlePage() {
+        return bankService.getTransactionHistory(accountNumber, pageSize, middlePageToken);
+    }
+}
@@ -0,0 +1,217 @@
+package com.bank.springbootbank.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.bank.springbootbank.service.AdminService;
+import com.bank.springbootbank.service.BankService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Serves the console menus over plain TCP for branch terminals, e.g. "nc localhost 7070".
+ * Lines in, text out, the same flows as the local console.
+ *
+ * Every connection gets its own TerminalSession on its own virtual thread, so an operator
+ * thinking about their next input costs a parked virtual thread and a socket, not a platform
+ * thread. At most bank.terminal.max-sessions run at once, further connections are told so and
+ * closed. A session that sends nothing for bank.terminal.idle-timeout is disconnected.
+ *
+ * Binds to bank.terminal.host, loopback by default: there is no transport security, front it
+ * with something that has some if terminals aren't on the same host.
+ */
+@Component
+@ConditionalOnProperty(name = "bank.terminal.enabled", havingValue = "true")
+public class TerminalServer implements SmartLifecycle, MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(TerminalServer.class);
+    // Waits after a failed accept, doubling per failure in a row, e.g. while file descriptors are exhausted
+    private static final Duration MIN_ACCEPT_BACKOFF = Duration.ofMillis(10);
+    private static final Duration MAX_ACCEPT_BACKOFF = Duration.ofSeconds(1);
+
+    private final BankService bankService;
+    private final AdminService adminService;
+    private final MeterRegistry meterRegistry;
+    private final String host;
+    private final int port;
+    private final int maxSessions;
+    private final Duration idleTimeout;
+    private final Semaphore sessionPermits;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile ServerSocket serverSocket;
+
+    @Autowired
+    public TerminalServer(BankService bankService, AdminService adminService, MeterRegistry meterRegistry,
+                          @Value("${bank.terminal.host:127.0.0.1}") String host,
+                          @Value("${bank.terminal.port:7070}") int port,
+                          @Value("${bank.terminal.max-sessions:5000}") int maxSessions,
+                          @Value("${bank.terminal.idle-timeout:15m}") Duration idleTimeout) {
+        this.bankService = bankService;
+        this.adminService = adminService;
+        this.meterRegistry = meterRegistry;
+        this.host = host;
+        this.port = port;
+        this.maxSessions = maxSessions;
+        this.idleTimeout = idleTimeout;
+        this.sessionPermits = new Semaphore(maxSessions);
+    }
+
+    @Override
+    public void start() {
+        try {
+            ServerSocket socket = new ServerSocket();
+            socket.bind(new InetSocketAddress(InetAddress.getByName(host), port), maxSessions);
+            serverSocket = socket;
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't listen for terminals on " + host + ":" + port, e);
+        }
+        Thread.ofVirtual().name("terminal-acceptor").start(this::acceptConnections);
+        log.info("Terminal server listening on {}:{}", host, getPort());
+    }
+
+    private void acceptConnections() {
+        ThreadFactory sessionThreads = Thread.ofVirtual().name("terminal-", 1).factory();
+        ServerSocket socket = serverSocket;
+        int failures = 0;
+        while (!socket.isClosed()) {
+            Socket connection;
+            try {
+                connection = socket.accept();
+                failures = 0;
+            } catch (IOException e) {
+                if (socket.isClosed()) {
+                    break;
+                }
+                Duration backoff = acceptBackoff(++failures);
+                // Only the first failure of a run and then one per second at most, not every retry
+                if (failures == 1 || backoff.equals(MAX_ACCEPT_BACKOFF)) {
+                    log.warn("Accepting a terminal connection failed {} times in a row, retrying in {}: {}",
+                            failures, backoff, e.getMessage());
+                }
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                continue;
+            }
+            if (!sessionPermits.tryAcquire()) {
+                rejected.incrementAndGet();
+                refuse(connection);
+                continue;
+            }
+            accepted.incrementAndGet();
+            connections.add(connection);
+            sessionThreads.newThread(() -> serve(connection)).start();
+        }
+    }
+
+    private static Duration acceptBackoff(int failures) {
+        Duration backoff = MIN_ACCEPT_BACKOFF.multipliedBy(1L << Math.min(failures - 1, 20));
+        return backoff.compareTo(MAX_ACCEPT_BACKOFF) > 0 ? MAX_ACCEPT_BACKOFF : backoff;
+    }
+
+    private void serve(Socket connection) {
+        try (connection) {
+            connection.setSoTimeout((int) idleTimeout.toMillis());
+            connection.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(connection.getOutputStream(), false, StandardCharsets.UTF_8);
+            new TerminalSession(bankService, adminService, meterRegistry, in, out).run();
+        } catch (Exception e) {
+            // Idle timeout, reset by the terminal or shutdown; the session's work is already committed or rolled back
+            log.debug("Terminal session ended: {}", e.getMessage());
+        } finally {
+            connections.remove(connection);
+            sessionPermits.release();
+        }
+    }
+
+    private static void refuse(Socket connection) {
+        try (connection) {
+            PrintWriter out = new PrintWriter(connection.getOutputStream(), false, StandardCharsets.UTF_8);
+            out.println("Too many terminal sessions, please try again later.");
+            out.flush();
+        } catch (IOException e) {
+            // Gone already
+        }
+    }
+
+    @Override
+    public void stop() {
+        ServerSocket socket = serverSocket;
+        if (socket == null) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException e) {
+            log.warn("Closing the terminal server failed: {}", e.getMessage());
+        }
+        // Unblocks the sessions' reads, each one unwinds on its own thread
+        for (Socket connection : connections) {
+            try {
+                connection.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        }
+        serverSocket = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return serverSocket != null;
+    }
+
+    // The bound port, useful when bank.terminal.port is 0
+    public int getPort() {
+        ServerSocket socket = serverSocket;
+        return socket != null ? socket.getLocalPort() : -1;
+    }
+
+    public int activeSessions() {
+        return maxSessions - sessionPermits.availablePermits();
+    }
+
+    // Latency per command is bank.terminal.commands, recorded by the sessions
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bank.terminal.sessions", this, TerminalServer::activeSessions)
+                .description("Open terminal sessions")
+                .register(registry);
+        FunctionCounter.builder("bank.terminal.accepted", accepted, AtomicLong::get)
+                .description("Terminal connections accepted")
+                .register(registry);
+        FunctionCounter.builder("bank.terminal.rejected", rejected, AtomicLong::get)
+                .description("Terminal connections refused because bank.terminal.max-sessions were open")
+                .register(registry);
+    }
+}
@@ -0,0 +1,719 @@
+package com.bank.springbootbank.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.bank.springbootbank.dto.AccountSummary;
+import com.bank.springbootbank.dto.TransactionLine;
+import com.bank.springbootbank.dto.TransactionPage;
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.Admin;
+import com.bank.springbootbank.model.Transaction;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.service.AdminService;
+import com.bank.springbootbank.service.BankService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The console menus for one operator: the local console (BankCLI) or one TerminalServer connection.
+ * Everything about the operator, who is logged in and where they are in the menus, lives in
+ * this object and the thread running it, so any number of sessions can run side by side.
+ *
+ * Every menu command is timed as bank.terminal.commands{command}. Time spent waiting for the
+ * operator to type is left out, the timer measures what the bank took to answer.
+ */
+public class TerminalSession {
+    private static final int HISTORY_PAGE_SIZE = 20;
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+
+    private final BankService bankService;
+    private final AdminService adminService;
+    private final MeterRegistry meterRegistry;
+    private final BufferedReader in;
+    private final PrintWriter out;
+    private User currentUser;
+    private Admin currentAdmin;
+    private long inputWaitNanos;
+
+    // Thrown when the operator's input ends, unwinds the menus without printing an error
+    static class TerminalClosedException extends RuntimeException {
+        TerminalClosedException() {
+            super("Terminal closed", null, false, false);
+        }
+    }
+
+    public TerminalSession(BankService bankService, AdminService adminService, MeterRegistry meterRegistry,
+                           BufferedReader in, PrintWriter out) {
+        this.bankService = bankService;
+        this.adminService = adminService;
+        this.meterRegistry = meterRegistry;
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * Runs the menus until the operator exits or the connection ends.
+     */
+    public void run() {
+        try {
+            mainMenu();
+        } catch (TerminalClosedException e) {
+            // The operator hung up, nothing left to tell them
+        } finally {
+            out.flush();
+        }
+    }
+
+    private void mainMenu() {
+        while (true) {
+            out.println("\n=== Welcome to Spring Boot Bank ===");
+            out.println("1. User Login");
+            out.println("2. Admin Login");
+            out.println("3. Register");
+            out.println("4. Exit");
+            out.print("Enter your choice: ");
+
+            int choice = readChoice();
+
+            switch (choice) {
+                case 1:
+                    if (command("login", this::login)) {
+                        displayUserMenu();
+                    }
+                    break;
+                case 2:
+                    if (command("admin-login", this::adminLogin)) {
+                        displayAdminMenu();
+                    }
+                    break;
+                case 3:
+                    command("register", this::register);
+                    break;
+                case 4:
+                    out.println("Thank you for using Spring Boot Bank!");
+                    return;
+                default:
+                    out.println("Invalid choice. Please try again.");
+            }
+        }
+    }
+
+    private boolean adminLogin() {
+        out.print("Enter admin username: ");
+        String username = readLine();
+        out.print("Enter admin password: ");
+        String password = readLine();
+
+        Optional<Admin> admin = adminService.login(username, password);
+        if (admin.isPresent()) {
+            currentAdmin = admin.get();
+            out.println("Welcome, " + currentAdmin.getFullName() + "!");
+            return true;
+        }
+        out.println("Invalid admin credentials!");
+        return false;
+    }
+
+    private void displayAdminMenu() {
+        while (true) {
+            out.println("\n=== Admin Menu ===");
+            out.println("1. View All Users");
+            out.println("2. View All Accounts");
+            out.println("3. View User Details");
+            out.println("4. View Account Details");
+            out.println("5. Delete User");
+            out.println("6. Delete Account");
+            out.println("7. Create Admin Account");
+            out.println("8. Logout");
+            out.print("Enter your choice: ");
+
+            int choice = readChoice();
+
+            switch (choice) {
+                case 1:
+                    command("view-all-users", this::viewAllUsers);
+                    break;
+                case 2:
+                    command("view-all-accounts", this::viewAllAccounts);
+                    break;
+                case 3:
+                    command("view-user", this::viewUserDetails);
+                    break;
+                case 4:
+                    command("view-account", this::viewAccountDetails);
+                    break;
+                case 5:
+                    command("delete-user", this::deleteUser);
+                    break;
+                case 6:
+                    command("delete-account", this::deleteAccount);
+                    break;
+                case 7:
+                    command("create-admin", this::createAdminAccount);
+                    break;
+                case 8:
+                    currentAdmin = null;
+                    return;
+                default:
+                    out.println("Invalid choice. Please try again.");
+            }
+        }
+    }
+
+    private void viewAllUsers() {
+        List<User> users = adminService.getAllUsers();
+        out.println("\n=== All Users ===");
+        for (User user : users) {
+            out.println("ID: " + user.getId());
+            out.println("Username: " + user.getUsername());
+            out.println("Email: " + user.getEmail());
+            out.println("Full Name: " + user.getFullName());
+            out.println("-------------------");
+        }
+    }
+
+    private void viewAllAccounts() {
+        List<AccountSummary> accounts = adminService.getAllAccounts();
+        out.println("\n=== All Accounts ===");
+        for (AccountSummary account : accounts) {
+            out.println("Account Number: " + account.accountNumber());
+            out.println("Owner: " + account.ownerUsername());
+            out.println("Type: " + account.accountType());
+            out.println("Balance: $" + account.balance());
+            out.println("APY: " + account.apy() + "%");
+            out.println("-------------------");
+        }
+    }
+
+    private void viewUserDetails() {
+        out.print("Enter user ID: ");
+        Long userId = readId();
+
+        Optional<User> user = adminService.getUserById(userId);
+        if (user.isPresent()) {
+            User foundUser = user.get();
+            out.println("\n=== User Details ===");
+            out.println("ID: " + foundUser.getId());
+            out.println("Username: " + foundUser.getUsername());
+            out.println("Email: " + foundUser.getEmail());
+            out.println("Full Name: " + foundUser.getFullName());
+        } else {
+            out.println("User not found!");
+        }
+    }
+
+    private void viewAccountDetails() {
+        out.print("Enter account ID: ");
+        Long accountId = readId();
+
+        Optional<Account> account = adminService.getAccountById(accountId);
+        if (account.isPresent()) {
+            Account foundAccount = account.get();
+            out.println("\n=== Account Details ===");
+            out.println("Account Number: " + foundAccount.getAccountNumber());
+            out.println("Type: " + foundAccount.getAccountType());
+            out.println("Balance: $" + foundAccount.getBalance());
+            out.println("APY: " + foundAccount.getApy() + "%");
+            
+            // Get the user's other account
+            User accountHolder = foundAccount.getUser();
+            List<Account> allAccounts = bankService.getUserAccounts(accountHolder);
+            
+            if (allAccounts.size() > 1) {
+                out.println("\n=== User's Other Account ===");
+                for (Account otherAccount : allAccounts) {
+                    if (!otherAccount.getAccountNumber().equals(foundAccount.getAccountNumber())) {
+                        out.println("Account Number: " + otherAccount.getAccountNumber());
+                        out.println("Type: " + otherAccount.getAccountType());
+                        out.println("Balance: $" + otherAccount.getBalance());
+                        out.println("APY: " + otherAccount.getApy() + "%");
+                    }
+                }
+            }
+        } else {
+            out.println("Account not found!");
+        }
+    }
+
+    private void deleteUser() {
+        out.print("Enter user ID to delete: ");
+        Long userId = readId();
+
+        try {
+            adminService.deleteUser(userId);
+            out.println("User deleted successfully!");
+        } catch (Exception e) {
+            out.println("Error deleting user: " + e.getMessage());
+        }
+    }
+
+    private void deleteAccount() {
+        out.print("Enter account ID to delete: ");
+        Long accountId = readId();
+
+        try {
+            adminService.deleteAccount(accountId);
+            out.println("Account deleted successfully!");
+        } catch (Exception e) {
+            out.println("Error deleting account: " + e.getMessage());
+        }
+    }
+
+    private void register() {
+        out.println("\n=== Register New Account ===");
+        out.print("Enter username: ");
+        String username = readLine();
+        out.print("Enter password: ");
+        String password = readLine();
+        out.print("Enter full name: ");
+        String fullName = readLine();
+        out.print("Enter address: ");
+        String address = readLine();
+        out.print("Enter phone number: ");
+        String phoneNumber = readLine();
+        out.print("Enter email: ");
+        String email = readLine();
+
+        User user = bankService.registerUser(username, password, fullName, address, phoneNumber, email);
+        out.println("Registration successful!");
+        currentUser = user;
+
+        // Directly show account type selection
+        out.println("\nSelect account type:");
+        out.println("1. Savings Account");
+        out.println("2. Checking Account");
+        out.println("3. Both Accounts");
+        out.print("Enter your choice (1-3): ");
+        
+        String choice = readLine();
+        try {
+            switch (choice) {
+                case "1" -> {
+                    Account account = bankService.createAccount(currentUser, 2); // 2 for savings
+                    out.println("\nSavings account created successfully!");
+                    out.println("Account Number: " + account.getAccountNumber());
+                    
+                    // Prompt for initial deposit for savings account
+                    out.print("\nWould you like to make an initial deposit to your savings account? (yes/no): ");
+                    String depositChoice = readLine().toLowerCase();
+                    if (depositChoice.equals("yes") || depositChoice.equals("y")) {
+                        out.print("Enter initial deposit amount: $");
+                        String amountStr = readLine();
+                        try {
+                            BigDecimal amount = new BigDecimal(amountStr);
+                            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                                out.println("Error: Amount must be greater than zero");
+                            } else {
+                                printApyIfSet(bankService.deposit(account.getAccountNumber(), amount));
+                                out.println("Initial deposit successful!");
+                            }
+                        } catch (NumberFormatException e) {
+                            out.println("Error: Invalid amount format");
+                        }
+                    }
+                }
+                case "2" -> {
+                    Account account = bankService.createAccount(currentUser, 1); // 1 for checking
+                    out.println("\nChecking account created successfully!");
+                    out.println("Account Number: " + account.getAccountNumber());
+                    
+                    // Prompt for initial deposit for checking account
+                    out.print("\nWould you like to make an initial deposit to your checking account? (yes/no): ");
+                    String depositChoice = readLine().toLowerCase();
+                    if (depositChoice.equals("yes") || depositChoice.equals("y")) {
+                        out.print("Enter initial deposit amount: $");
+                        String amountStr = readLine();
+                        try {
+                            BigDecimal amount = new BigDecimal(amountStr);
+                            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                                out.println("Error: Amount must be greater than zero");
+                            } else {
+                                bankService.deposit(account.getAccountNumber(), amount);
+                                out.println("Initial deposit successful!");
+                            }
+                        } catch (NumberFormatException e) {
+                            out.println("Error: Invalid amount format");
+                        }
+                    }
+                }
+                case "3" -> {
+                    List<Account> accounts = bankService.createBothAccounts(currentUser);
+                    out.println("\nBoth accounts created successfully!");
+                    for (Account account : accounts) {
+                        out.println(account.getAccountType() + " Account Number: " + account.getAccountNumber());
+                    }
+                    
+                    // Prompt for initial deposits for both accounts
+                    for (Account account : accounts) {
+                        out.print("\nWould you like to make an initial deposit to your " + 
+                            account.getAccountType().toLowerCase() + " account? (yes/no): ");
+                        String depositChoice = readLine().toLowerCase();
+                        if (depositChoice.equals("yes") || depositChoice.equals("y")) {
+                            out.print("Enter initial deposit amount: $");
+                            String amountStr = readLine();
+                            try {
+                                BigDecimal amount = new BigDecimal(amountStr);
+                                if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                                    out.println("Error: Amount must be greater than zero");
+                                } else {
+                                    printApyIfSet(bankService.deposit(account.getAccountNumber(), amount));
+                                    out.println("Initial deposit successful!");
+                                }
+                            } catch (NumberFormatException e) {
+                                out.println("Error: Invalid amount format");
+                            }
+                        }
+                    }
+                }
+                default -> out.println("\nInvalid choice. Please enter 1, 2, or 3.");
+            }
+        } catch (TerminalClosedException e) {
+            throw e;
+        } catch (Exception e) {
+            out.println("\nError: " + e.getMessage());
+        }
+    }
+
+    private boolean login() {
+        out.println("\n=== Login ===");
+        out.print("Enter username: ");
+        String username = readLine();
+        out.print("Enter password: ");
+        String password = readLine();
+
+        try {
+            currentUser = bankService.login(username, password);
+            out.println("Login successful!");
+            return true;
+        } catch (Exception e) {
+            out.println("Error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void displayUserMenu() {
+        while (true) {
+            out.println("\n=== User Menu ===");
+            out.println("1. Deposit");
+            out.println("2. Withdraw");
+            out.println("3. Check Balance");
+            out.println("4. View Transaction History");
+            out.println("5. Transfer Money");
+            out.println("6. Logout");
+            out.print("Enter your choice: ");
+
+            int choice = readChoice();
+
+            switch (choice) {
+                case 1:
+                    command("deposit", this::deposit);
+                    break;
+                case 2:
+                    command("withdraw", this::withdraw);
+                    break;
+                case 3:
+                    command("check-balance", this::checkBalance);
+                    break;
+                case 4:
+                    command("transaction-history", this::viewTransactionHistory);
+                    break;
+                case 5:
+                    command("transfer", this::transfer);
+                    break;
+                case 6:
+                    logout();
+                    return;
+                default:
+                    out.println("Invalid choice. Please try again.");
+            }
+        }
+    }
+
+    private void logout() {
+        currentUser = null;
+        out.println("Logged out successfully!");
+    }
+
+    private Account selectAccount() {
+        List<Account> accounts = bankService.getUserAccounts(currentUser);
+        if (accounts.isEmpty()) {
+            throw new RuntimeException("No accounts found");
+        }
+
+        out.println("\nSelect account type:");
+        out.println("1. Savings Account");
+        out.println("2. Checking Account");
+        out.print("Enter your choice (1-2): ");
+        
+        String choice = readLine();
+        return accounts.stream()
+                .filter(account -> (choice.equals("1") && account.getAccountType().equals("SAVINGS")) ||
+                                 (choice.equals("2") && account.getAccountType().equals("CHECKING")))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Invalid account type selection"));
+    }
+
+    // A deposit only sets a savings account's APY when the account was empty, i.e. the balance is now this deposit
+    private void printApyIfSet(Transaction deposit) {
+        Account account = deposit.getAccount();
+        if (account.getAccountType().equals("SAVINGS") && account.getBalance().equals(deposit.getAmount())) {
+            out.println("\nAPY set to " + account.getApy().multiply(ONE_HUNDRED).stripTrailingZeros().toPlainString()
+                    + "% based on initial deposit");
+        }
+    }
+
+    private void deposit() {
+        try {
+            Account account = selectAccount();
+            out.print("Enter amount to deposit: $");
+            String amountStr = readLine();
+            if (amountStr.trim().isEmpty()) {
+                out.println("Error: Amount cannot be empty");
+                return;
+            }
+
+            BigDecimal amount;
+            try {
+                amount = new BigDecimal(amountStr);
+                if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                    out.println("Error: Amount must be greater than zero");
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                out.println("Error: Invalid amount format");
+                return;
+            }
+            
+            Transaction transaction = bankService.deposit(account.getAccountNumber(), amount);
+            printApyIfSet(transaction);
+            out.println("Deposit successful!");
+            out.println("New balance: " + transaction.getAccount().getBalance());
+        } catch (TerminalClosedException e) {
+            throw e;
+        } catch (Exception e) {
+            out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private void withdraw() {
+        try {
+            Account account = selectAccount();
+            out.print("Enter amount to withdraw: $");
+            String amountStr = readLine();
+            if (amountStr.trim().isEmpty()) {
+                out.println("Error: Amount cannot be empty");
+                return;
+            }
+
+            BigDecimal amount;
+            try {
+                amount = new BigDecimal(amountStr);
+                if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                    out.println("Error: Amount must be greater than zero");
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                out.println("Error: Invalid amount format");
+                return;
+            }
+            
+            Transaction transaction = bankService.withdraw(account.getAccountNumber(), amount);
+            out.println("Withdrawal successful!");
+            out.println("New balance: " + transaction.getAccount().getBalance());
+        } catch (TerminalClosedException e) {
+            throw e;
+        } catch (Exception e) {
+            out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private void checkBalance() {
+        try {
+            Account account = selectAccount();
+            out.println("\nAccount Details:");
+            out.println("Account Number: " + account.getAccountNumber());
+            out.println("Account Type: " + account.getAccountType());
+            out.println("Account Holder: " + account.getAccountHolderName());
+            out.println("Current Balance: " + account.getBalance());
+            if (account.getAccountType().equals("SAVINGS")) {
+                out.println("APY: " + account.getApy().multiply(new BigDecimal("100")).stripTrailingZeros().toPlainString() + "%");
+            }
+        } catch (TerminalClosedException e) {
+            throw e;
+        } catch (Exception e) {
+            out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private void viewTransactionHistory() {
+        try {
+            Account account = selectAccount();
+            out.println("\nTransaction History for " + account.getAccountType() + " Account: " + account.getAccountNumber());
+            out.println("Account Holder: " + account.getAccountHolderName());
+            TransactionPage page = bankService.getTransactionHistory(account.getAccountNumber(), HISTORY_PAGE_SIZE, null);
+
+            if (page.transactions().isEmpty()) {
+                out.println("No transactions found.");
+                return;
+            }
+            out.println("\nDate\t\t\tType\t\tAmount");
+            out.println("------------------------------------------------");
+            while (true) {
+                for (TransactionLine transaction : page.transactions()) {
+                    out.printf("%s\t%s\t\t%s%n",
+                            transaction.transactionDate(),
+                            transaction.transactionType(),
+                            transaction.amount());
+                }
+                if (!page.hasMore()) {
+                    break;
+                }
+                // Only fetch the next page when the user asks for it
+                out.print("Show more transactions? (yes/no): ");
+                String more = readLine().toLowerCase();
+                if (!more.equals("yes") && !more.equals("y")) {
+                    break;
+                }
+                page = bankService.getTransactionHistory(account.getAccountNumber(), HISTORY_PAGE_SIZE, page.nextPageToken());
+            }
+        } catch (TerminalClosedException e) {
+            throw e;
+        } catch (Exception e) {
+            out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private void transfer() {
+        try {
+            out.println("\n=== Transfer Money ===");
+            
+            // Select source account
+            out.println("Select source account:");
+            Account fromAccount = selectAccount();
+            
+            // Get recipient's account number
+            out.print("Enter recipient's account number: ");
+            String toAccountNumber = readLine();
+            
+            // Enter amount
+            out.print("Enter amount to transfer: $");
+            String amountStr = readLine();
+            if (amountStr.trim().isEmpty()) {
+                out.println("Error: Amount cannot be empty");
+                return;
+            }
+
+            BigDecimal amount;
+            try {
+                amount = new BigDecimal(amountStr);
+                if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                    out.println("Error: Amount must be greater than zero");
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                out.println("Error: Invalid amount format");
+                return;
+            }
+            
+            Transaction transaction = bankService.transfer(fromAccount.getAccountNumber(), toAccountNumber, amount);
+            out.println("Transfer successful!");
+            out.println("New balance: " + transaction.getAccount().getBalance());
+        } catch (TerminalClosedException e) {
+            throw e;
+        } catch (Exception e) {
+            out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private void createAdminAccount() {
+        out.println("\n=== Create Admin Account ===");
+        out.print("Enter username: ");
+        String username = readLine();
+        out.print("Enter password: ");
+        String password = readLine();
+        out.print("Enter email: ");
+        String email = readLine();
+        out.print("Enter full name: ");
+        String fullName = readLine();
+
+        try {
+            Admin newAdmin = new Admin();
+            newAdmin.setUsername(username);
+            newAdmin.setPassword(password);
+            newAdmin.setEmail(email);
+            newAdmin.setFullName(fullName);
+
+            Admin createdAdmin = adminService.createAdmin(newAdmin, currentAdmin);
+            out.println("Admin account created successfully!");
+            out.println("Admin ID: " + createdAdmin.getId());
+            out.println("Username: " + createdAdmin.getUsername());
+            out.println("Full Name: " + createdAdmin.getFullName());
+        } catch (Exception e) {
+            out.println("Error creating admin account: " + e.getMessage());
+        }
+    }
+
+    private void command(String name, Runnable action) {
+        command(name, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> T command(String name, Supplier<T> action) {
+        long started = System.nanoTime();
+        long waitedBefore = inputWaitNanos;
+        try {
+            return action.get();
+        } finally {
+            long busy = System.nanoTime() - started - (inputWaitNanos - waitedBefore);
+            Timer.builder("bank.terminal.commands")
+                    .description("Terminal menu commands, excluding time spent waiting for input")
+                    .tag("command", name)
+                    .register(meterRegistry)
+                    .record(Math.max(busy, 0), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String readLine() {
+        out.flush(); // prompts are printed without a newline
+        long started = System.nanoTime();
+        try {
+            String line = in.readLine();
+            if (line == null) {
+                throw new TerminalClosedException();
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            inputWaitNanos += System.nanoTime() - started;
+        }
+    }
+
+    // Menu choice, anything that isn't a number is an invalid choice
+    private int readChoice() {
+        try {
+            return Integer.parseInt(readLine().trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Long readId() {
+        try {
+            return Long.parseLong(readLine().trim());
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
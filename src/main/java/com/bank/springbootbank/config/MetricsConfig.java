@@ -0,0 +1,22 @@
+package com.bank.springbootbank.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Micrometer wiring, scraped at /actuator/prometheus.
+ * Boot meters HTTP requests, the Hikari pool, repository calls and Hibernate statistics on its own,
+ * the bank's own meters are bound by the components that own them (MeterBinder).
+ * Histogram buckets and percentiles are configured per meter name in application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+    // Turns @Timed on BankService and AdminService into bank.operations timers, tagged by class and method
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
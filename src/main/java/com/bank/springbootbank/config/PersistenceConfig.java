@@ -0,0 +1,22 @@
+package com.bank.springbootbank.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Configuration
+public class PersistenceConfig {
+
+    /**
+     * Hibernate's query and entity counters, only collected when
+     * hibernate.generate_statistics is on (bank.hibernate.statistics.enabled).
+     * Tests use them to assert how many statements a service call issues.
+     */
+    @Bean
+    public Statistics hibernateStatistics(EntityManagerFactory entityManagerFactory) {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,10 @@
+package com.bank.springbootbank.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs (interest accrual and friends), each one takes its schedule from application.properties
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
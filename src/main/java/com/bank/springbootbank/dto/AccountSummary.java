@@ -0,0 +1,17 @@
+package com.bank.springbootbank.dto;
+
+import java.math.BigDecimal;
+
+import com.bank.springbootbank.model.Money;
+
+/**
+ * Read-only account row for listings, loaded with the owner's username in a single query.
+ */
+public record AccountSummary(Long id, String accountNumber, String accountType, BigDecimal balance,
+                             BigDecimal apy, String ownerUsername) {
+    // Used by the query's constructor expression, the balance column comes back as Money
+    public AccountSummary(Long id, String accountNumber, String accountType, Money balance, BigDecimal apy,
+                          String ownerUsername) {
+        this(id, accountNumber, accountType, balance.toBigDecimal(), apy, ownerUsername);
+    }
+}
@@ -0,0 +1,17 @@
+package com.bank.springbootbank.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.bank.springbootbank.model.Account;
+
+/**
+ * Account as returned by the API, without the owner or any other association.
+ */
+public record AccountView(String accountNumber, String accountType, String accountHolderName, BigDecimal balance,
+                          BigDecimal apy, LocalDateTime createdAt) {
+    public static AccountView from(Account account) {
+        return new AccountView(account.getAccountNumber(), account.getAccountType(), account.getAccountHolderName(),
+                account.getBalance().toBigDecimal(), account.getApy(), account.getCreatedAt());
+    }
+}
@@ -0,0 +1,9 @@
+package com.bank.springbootbank.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Body of a deposit or withdrawal.
+ */
+public record AmountRequest(BigDecimal amount) {
+}
@@ -0,0 +1,23 @@
+package com.bank.springbootbank.dto;
+
+import java.math.BigDecimal;
+
+import com.bank.springbootbank.model.Money;
+
+/**
+ * An account's running balance next to the balance its ledger adds up to, read in one statement.
+ */
+public record BalanceCheck(Long accountId, String accountNumber, BigDecimal balance, BigDecimal ledgerBalance) {
+    // Used by the query's constructor expression, the balance column comes back as Money
+    public BalanceCheck(Long accountId, String accountNumber, Money balance, BigDecimal ledgerBalance) {
+        this(accountId, accountNumber, balance.toBigDecimal(), ledgerBalance);
+    }
+
+    public boolean drifted() {
+        return balance.compareTo(ledgerBalance) != 0;
+    }
+
+    public BigDecimal difference() {
+        return balance.subtract(ledgerBalance);
+    }
+}
@@ -0,0 +1,4 @@
+package com.bank.springbootbank.dto;
+
+public record ErrorResponse(String message) {
+}
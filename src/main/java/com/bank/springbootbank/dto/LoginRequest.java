@@ -0,0 +1,7 @@
+package com.bank.springbootbank.dto;
+
+/**
+ * Body of a customer or admin login.
+ */
+public record LoginRequest(String username, String password) {
+}
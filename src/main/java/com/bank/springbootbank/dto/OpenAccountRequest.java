@@ -0,0 +1,7 @@
+package com.bank.springbootbank.dto;
+
+/**
+ * accountType is CHECKING or SAVINGS.
+ */
+public record OpenAccountRequest(String accountType) {
+}
@@ -0,0 +1,5 @@
+package com.bank.springbootbank.dto;
+
+public record RegistrationRequest(String username, String password, String fullName, String address,
+                                  String phoneNumber, String email) {
+}
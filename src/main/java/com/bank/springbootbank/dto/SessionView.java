@@ -0,0 +1,16 @@
+package com.bank.springbootbank.dto;
+
+import java.time.Instant;
+
+import com.bank.springbootbank.service.SessionService.SessionToken;
+
+/**
+ * A new session, the token goes into the Authorization header as "Bearer <token>".
+ */
+public record SessionView(String token, String role, Long id, String username, Instant expiresAt) {
+    public static SessionView from(SessionToken sessionToken) {
+        return new SessionView(sessionToken.token(), sessionToken.session().role().name(),
+                sessionToken.session().principalId(), sessionToken.session().username(),
+                sessionToken.session().expiresAt());
+    }
+}
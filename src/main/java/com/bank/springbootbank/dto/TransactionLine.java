@@ -0,0 +1,14 @@
+package com.bank.springbootbank.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.bank.springbootbank.model.TransactionType;
+
+/**
+ * Read-only history row: one ledger line of an account, no entity is loaded for it.
+ * amount is signed, negative when money left the account.
+ */
+public record TransactionLine(Long id, LocalDateTime transactionDate, TransactionType transactionType,
+                              BigDecimal amount, String description) {
+}
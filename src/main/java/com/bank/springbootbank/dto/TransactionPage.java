@@ -0,0 +1,13 @@
+package com.bank.springbootbank.dto;
+
+import java.util.List;
+
+/**
+ * One page of an account's transaction history, newest first.
+ * nextPageToken is null on the last page, otherwise pass it back to get the next page.
+ */
+public record TransactionPage(List<TransactionLine> transactions, String nextPageToken) {
+    public boolean hasMore() {
+        return nextPageToken != null;
+    }
+}
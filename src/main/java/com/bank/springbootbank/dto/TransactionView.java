@@ -0,0 +1,19 @@
+package com.bank.springbootbank.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.bank.springbootbank.model.Transaction;
+import com.bank.springbootbank.model.TransactionType;
+
+/**
+ * A posted transaction as returned by the API.
+ */
+public record TransactionView(Long id, String accountNumber, TransactionType transactionType, BigDecimal amount,
+                              LocalDateTime transactionDate, String description) {
+    public static TransactionView from(Transaction transaction) {
+        return new TransactionView(transaction.getId(), transaction.getAccount().getAccountNumber(),
+                transaction.getTransactionType(), transaction.getAmount().toBigDecimal(), transaction.getTransactionDate(),
+                transaction.getDescription());
+    }
+}
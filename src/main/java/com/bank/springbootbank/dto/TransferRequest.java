@@ -0,0 +1,6 @@
+package com.bank.springbootbank.dto;
+
+import java.math.BigDecimal;
+
+public record TransferRequest(String fromAccountNumber, String toAccountNumber, BigDecimal amount) {
+}
@@ -0,0 +1,16 @@
+package com.bank.springbootbank.dto;
+
+import java.time.LocalDateTime;
+
+import com.bank.springbootbank.model.User;
+
+/**
+ * User as returned by the API, never includes the password.
+ */
+public record UserView(Long id, String username, String fullName, String email, String phoneNumber,
+                       LocalDateTime createdAt) {
+    public static UserView from(User user) {
+        return new UserView(user.getId(), user.getUsername(), user.getFullName(), user.getEmail(),
+                user.getPhoneNumber(), user.getCreatedAt());
+    }
+}
@@ -5,12 +5,14 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.Getter;
@@ -30,7 +32,8 @@ import lombok.Setter;
 @Setter // using lomboks library
 public class Account {
     @Id // every table needs a primary key
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // ID goes up by 1 (per user)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq") // pooled ids so inserts can be JDBC batched
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id; // field for ID
 
     @Column(name = "account_number", unique = true, nullable = false)
@@ -40,12 +43,12 @@ public class Account {
     private String accountType; // field for  accountType (SAVINGS OR CHECKINGS)
 
     @Column(nullable = false)
-    private BigDecimal balance; // field for balance
+    private Money balance; // field for balance, in cents
 
     @Column(name = "account_holder_name", nullable = false)
     private String accountHolderName;
 
-    @Column(nullable = true)
+    @Column(nullable = true, precision = 9, scale = 6)
     private BigDecimal apy; // annual Percentage Yield for savings accounts
 
     @Column(name = "created_at", nullable = false)
@@ -57,8 +60,11 @@ public class Account {
     @Column(name = "last_interest_calculation")
     private LocalDateTime lastInterestCalculation; // sets the last interest calculation with the most update date/time
 
-    @ManyToOne
-    @JoinColumn(name = "user_id", nullable = false) // FIGURE THIS OUT!!!!!!!!!!!!!!
+    @Column(name = "interest_remainder", nullable = false, precision = 20, scale = 10)
+    private BigDecimal interestRemainder = BigDecimal.ZERO; // interest earned below one cent, paid by a later run
+
+    @ManyToOne(fetch = FetchType.LAZY) // the owner is only loaded when something actually reads it
+    @JoinColumn(name = "user_id", nullable = false)
     private User user;  
 
 
@@ -95,7 +101,7 @@ public class Account {
         return accountNumber;
     }
 
-    public BigDecimal getBalance() {
+    public Money getBalance() {
         return balance;
     }
 
@@ -0,0 +1,56 @@
+package com.bank.springbootbank.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * The balance of an account as of a cutoff time: the sum of its ledger lines posted at or before asOf.
+ * A snapshot is only written for accounts that had lines since their previous one, so the latest
+ * snapshot at or before a time plus the lines after it always gives the balance at that time.
+ */
+@Entity
+@Table(name = "balance_snapshots")
+@IdClass(BalanceSnapshot.Key.class)
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class BalanceSnapshot {
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    @Column(name = "as_of")
+    private LocalDateTime asOf;
+
+    @Column(name = "last_entry_id", nullable = false)
+    private Long lastEntryId; // highest ledger line id folded into this snapshot
+
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDateTime asOf;
+    }
+}
@@ -0,0 +1,65 @@
+package com.bank.springbootbank.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A client-supplied key and the transaction its first request produced.
+ * The key is assigned by the caller, so the entity reports itself as new until it has been
+ * stored: save() then issues a plain INSERT, and a duplicate key fails on the primary key
+ * instead of being merged over the existing row.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@Setter
+public class IdempotencyKey implements Persistable<String> {
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String key;
+
+    @Column(nullable = false)
+    private String requestFingerprint; // operation and arguments, a reused key must describe the same request
+
+    @Column
+    private Long transactionId; // set in the same database transaction as the posting
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean stored;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !stored;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markStored() {
+        stored = true;
+    }
+}
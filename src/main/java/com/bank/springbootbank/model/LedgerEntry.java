@@ -0,0 +1,70 @@
+package com.bank.springbootbank.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a posted transaction. Every transaction has lines that sum to zero: money leaving
+ * an account is negative, money arriving is positive. A line without an account is the bank's
+ * side of money entering or leaving the bank (cash, ACH, interest paid).
+ *
+ * Lines are append-only, a mistake is corrected by posting another transaction.
+ * The type and description are copied from the transaction so an account's history and
+ * balance can be read from this table alone.
+ */
+@Entity
+@Table(name = "ledger_entries")
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class LedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_entries_seq")
+    @SequenceGenerator(name = "ledger_entries_seq", sequenceName = "ledger_entries_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id")
+    private Transaction transaction; // null once the transaction was deleted with the other account
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id")
+    private Account account; // null for the bank's side
+
+    @Column(name = "type_code", nullable = false)
+    private TransactionType transactionType;
+
+    @Column(nullable = false)
+    private BigDecimal amount; // signed
+
+    @Column(nullable = false)
+    private LocalDateTime postedAt;
+
+    @Column
+    private String description;
+
+    public LedgerEntry(Transaction transaction, Account account, BigDecimal amount, String description) {
+        this.transaction = transaction;
+        this.account = account;
+        this.transactionType = transaction.getTransactionType();
+        this.amount = amount;
+        this.postedAt = transaction.getTransactionDate();
+        this.description = description;
+    }
+}
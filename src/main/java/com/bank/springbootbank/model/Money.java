@@ -0,0 +1,98 @@
+package com.bank.springbootbank.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.hibernate.annotations.Immutable;
+
+/**
+ * An amount of dollars held as a long count of cents.
+ * Comparisons and sign checks never allocate, plus/minus allocate one small object (nothing for
+ * zero results) instead of a BigDecimal and its BigInteger. Overflow throws rather than wraps.
+ *
+ * BigDecimal stays at the edges: amounts arrive as BigDecimal from the API and the CLI and are
+ * converted once with of(), which rejects fractions of a cent instead of rounding them away.
+ */
+@Immutable
+public final class Money implements Comparable<Money>, Serializable {
+    public static final Money ZERO = new Money(0);
+    private static final int SCALE = 2;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    public static Money of(BigDecimal amount) {
+        try {
+            return ofCents(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new RuntimeException("Amount must be in whole cents and within range");
+        }
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    public boolean isAtLeast(Money other) {
+        return cents >= other.cents;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money money && money.cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    // Same text as the numeric(38, 2) column used to print, e.g. "-0.05" or "1250.00"
+    @Override
+    public String toString() {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        return (cents < 0 ? "-" : "") + abs / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
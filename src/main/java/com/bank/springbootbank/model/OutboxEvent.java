@@ -0,0 +1,66 @@
+package com.bank.springbootbank.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * A posted transaction waiting to be published to downstream systems.
+ * Written in the database transaction of the posting, so an event exists exactly when the posting
+ * committed. The row is self-contained (account numbers, not ids) and outlives the rows it describes.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OutboxEvent {
+    // Allocated one at a time while the account is locked, see V9__outbox_events.sql
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long transactionId;
+
+    @Column(name = "type_code", nullable = false)
+    private TransactionType transactionType;
+
+    @Column(nullable = false)
+    private String accountNumber; // the account the transaction was requested on
+
+    @Column
+    private String counterpartyAccountNumber; // receiving account of a transfer
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column
+    private String description;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    public OutboxEvent(Transaction transaction, Account counterparty) {
+        this.transactionId = transaction.getId();
+        this.transactionType = transaction.getTransactionType();
+        this.accountNumber = transaction.getAccount().getAccountNumber();
+        this.counterpartyAccountNumber = counterparty != null ? counterparty.getAccountNumber() : null;
+        this.amount = transaction.getAmount().toBigDecimal();
+        this.description = transaction.getDescription();
+        this.occurredAt = transaction.getTransactionDate();
+    }
+}
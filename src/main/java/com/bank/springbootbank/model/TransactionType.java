@@ -0,0 +1,39 @@
+package com.bank.springbootbank.model;
+
+/**
+ * Kind of posting, stored as a small numeric code (see TransactionTypeConverter).
+ * Codes are persisted, never renumber or reuse one.
+ */
+public enum TransactionType {
+    DEPOSIT(1),
+    WITHDRAWAL(2),
+    TRANSFER(3),
+    INTEREST(4),
+    ADJUSTMENT(5); // opening balances carried into the ledger when it was introduced
+
+    private static final TransactionType[] BY_CODE = new TransactionType[6];
+
+    static {
+        for (TransactionType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final short code;
+
+    TransactionType(int code) {
+        this.code = (short) code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static TransactionType fromCode(short code) {
+        TransactionType type = code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown transaction type code: " + code);
+        }
+        return type;
+    }
+}
@@ -0,0 +1,18 @@
+package com.bank.springbootbank.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// smallint instead of the type name: 2 bytes per row and per index entry
+@Converter(autoApply = true)
+public class TransactionTypeConverter implements AttributeConverter<TransactionType, Short> {
+    @Override
+    public Short convertToDatabaseColumn(TransactionType type) {
+        return type != null ? type.getCode() : null;
+    }
+
+    @Override
+    public TransactionType convertToEntityAttribute(Short code) {
+        return code != null ? TransactionType.fromCode(code) : null;
+    }
+}
@@ -1,18 +1,84 @@
 package com.bank.springbootbank.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.bank.springbootbank.dto.AccountSummary;
 import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.Money;
 import com.bank.springbootbank.model.User;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
     boolean existsByAccountNumber(String accountNumber);
-    List<Account> findByUserId(Long userId);
+    // Spelled out: the derived query joins users and filters on u.id, which scans accounts
+    @Query("select a from Account a where a.user.id = :userId")
+    List<Account> findByUserId(@Param("userId") Long userId);
     List<Account> findByUser(User user);
-} 
\ No newline at end of file
+
+    // Admin listing, joins the owner once instead of one user select per account
+    @Query("select new com.bank.springbootbank.dto.AccountSummary(a.id, a.accountNumber, a.accountType, a.balance, coalesce(a.apy, 0), u.username) " +
+           "from Account a join a.user u order by a.id")
+    List<AccountSummary> findAllSummaries();
+
+    // SELECT ... FOR UPDATE, callers must lock accounts in a fixed order to stay deadlock free
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountNumber = :accountNumber")
+    Optional<Account> findByAccountNumberForUpdate(@Param("accountNumber") String accountNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountNumber in :accountNumbers order by a.accountNumber")
+    List<Account> findAllByAccountNumberInForUpdate(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id in :ids order by a.accountNumber")
+    List<Account> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Keyset scan over all accounts for the snapshot and reconciliation jobs
+    @Query("select a.id from Account a where a.id > :afterId order by a.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Keyset scan for the interest run, accounts already accrued up to the cutoff are skipped
+    @Query("select a.id from Account a where a.accountType = 'SAVINGS' and a.id > :afterId " +
+           "and coalesce(a.lastInterestCalculation, a.createdAt) < :cutoff order by a.id")
+    List<Long> findSavingsIdsDueForInterest(@Param("afterId") Long afterId, @Param("cutoff") LocalDateTime cutoff,
+                                            Limit limit);
+
+    // Atomic in-database credit. The first deposit into an empty savings account also sets its APY,
+    // the CASE reads the balance as it was before this update
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance + :amount, " +
+           "a.apy = case when a.accountType = 'SAVINGS' and a.balance = 0 then :initialApy else a.apy end, " +
+           "a.updatedAt = :now where a.accountNumber = :accountNumber")
+    int creditBalance(@Param("accountNumber") String accountNumber, @Param("amount") Money amount,
+                      @Param("initialApy") BigDecimal initialApy, @Param("now") LocalDateTime now);
+
+    // Atomic in-database debit, updates nothing (returns 0) when the balance is too low
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance - :amount, a.updatedAt = :now " +
+           "where a.accountNumber = :accountNumber and a.balance >= :amount")
+    int debitBalance(@Param("accountNumber") String accountNumber, @Param("amount") Money amount,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from Account a where a.id = :accountId")
+    int deleteAccountById(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("delete from Account a where a.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -2,9 +2,19 @@ package com.bank.springbootbank.repository;
 
 import com.bank.springbootbank.model.Admin;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.Optional;
 
 public interface AdminRepository extends JpaRepository<Admin, Long> {
     Optional<Admin> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    @Transactional
+    @Modifying
+    @Query("update Admin a set a.password = :hash where a.id = :adminId and a.password = :current")
+    int upgradePassword(@Param("adminId") Long adminId, @Param("current") String current, @Param("hash") String hash);
 } 
\ No newline at end of file
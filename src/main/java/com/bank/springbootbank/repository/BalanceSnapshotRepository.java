@@ -0,0 +1,49 @@
+package com.bank.springbootbank.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bank.springbootbank.dto.BalanceCheck;
+import com.bank.springbootbank.model.BalanceSnapshot;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, BalanceSnapshot.Key> {
+    // Backward range scan on the primary key (account_id, as_of)
+    Optional<BalanceSnapshot> findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(Long accountId, LocalDateTime at);
+
+    /**
+     * Writes a snapshot as of asOf for every account in the id range that has ledger lines since its
+     * latest snapshot: that snapshot's balance plus those lines. Works out each account's own starting
+     * point, so a run that stopped halfway is completed by the next one, and repeating a cutoff writes nothing.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "insert into balance_snapshots (account_id, as_of, last_entry_id, balance, created_at) " +
+           "select e.account_id, :asOf, max(e.id), coalesce(max(p.balance), 0) + sum(e.amount), :now " +
+           "from ledger_entries e " +
+           "left join balance_snapshots p on p.account_id = e.account_id " +
+           "and p.as_of = (select max(s.as_of) from balance_snapshots s where s.account_id = e.account_id) " +
+           "where e.account_id between :fromAccountId and :toAccountId " +
+           "and e.posted_at <= :asOf and (p.as_of is null or e.posted_at > p.as_of) " +
+           "group by e.account_id")
+    int snapshotAccounts(@Param("fromAccountId") Long fromAccountId, @Param("toAccountId") Long toAccountId,
+                         @Param("asOf") LocalDateTime asOf, @Param("now") LocalDateTime now);
+
+    // Balance and ledger total (latest snapshot plus the lines after it) read by the same statement,
+    // so a posting committing meanwhile is seen on both sides or on neither
+    @Query("select new com.bank.springbootbank.dto.BalanceCheck(a.id, a.accountNumber, a.balance, " +
+           "coalesce(s.balance, 0) + coalesce((select sum(e.amount) from LedgerEntry e where e.account.id = a.id " +
+           "and (s.asOf is null or e.postedAt > s.asOf)), 0)) " +
+           "from Account a left join BalanceSnapshot s on s.accountId = a.id " +
+           "and s.asOf = (select max(l.asOf) from BalanceSnapshot l where l.accountId = a.id) " +
+           "where a.id in :ids order by a.id")
+    List<BalanceCheck> checkBalances(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,25 @@
+package com.bank.springbootbank.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bank.springbootbank.model.IdempotencyKey;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+    // Explicit update, the posting may already have cleared the persistence context
+    @Modifying
+    @Query("update IdempotencyKey k set k.transactionId = :transactionId where k.key = :key")
+    int recordTransaction(@Param("key") String key, @Param("transactionId") Long transactionId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,87 @@
+package com.bank.springbootbank.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bank.springbootbank.dto.TransactionLine;
+import com.bank.springbootbank.model.LedgerEntry;
+
+import jakarta.persistence.QueryHint;
+
+/**
+ * Every per-account read here is a range scan on idx_ledger_entries_account_posted
+ * (account_id, posted_at desc, id desc), none of them touches the transactions table.
+ */
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    // Keyset pagination on (posted_at, id), newest first, projected straight into history rows
+    @Query("select new com.bank.springbootbank.dto.TransactionLine(e.id, e.postedAt, e.transactionType, e.amount, e.description) " +
+           "from LedgerEntry e where e.account.id = :accountId " +
+           "order by e.postedAt desc, e.id desc")
+    List<TransactionLine> findLatestByAccountId(@Param("accountId") Long accountId, Limit limit);
+
+    @Query("select new com.bank.springbootbank.dto.TransactionLine(e.id, e.postedAt, e.transactionType, e.amount, e.description) " +
+           "from LedgerEntry e where e.account.id = :accountId " +
+           "and (e.postedAt < :postedAt or (e.postedAt = :postedAt and e.id < :id)) " +
+           "order by e.postedAt desc, e.id desc")
+    List<TransactionLine> findByAccountIdBefore(@Param("accountId") Long accountId,
+                                                @Param("postedAt") LocalDateTime postedAt,
+                                                @Param("id") Long id, Limit limit);
+
+    // Server-side cursor for exports, must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.bank.springbootbank.dto.TransactionLine(e.id, e.postedAt, e.transactionType, e.amount, e.description) " +
+           "from LedgerEntry e where e.account.id = :accountId " +
+           "order by e.postedAt desc, e.id desc")
+    Stream<TransactionLine> streamByAccountId(@Param("accountId") Long accountId);
+
+    @Query("select coalesce(sum(e.amount), 0) from LedgerEntry e where e.account.id = :accountId")
+    BigDecimal sumByAccountId(@Param("accountId") Long accountId);
+
+    // Tails for balances at a point in time, lines posted in (after, upTo]
+    @Query("select coalesce(sum(e.amount), 0) from LedgerEntry e where e.account.id = :accountId and e.postedAt <= :upTo")
+    BigDecimal sumByAccountIdUpTo(@Param("accountId") Long accountId, @Param("upTo") LocalDateTime upTo);
+
+    @Query("select coalesce(sum(e.amount), 0) from LedgerEntry e where e.account.id = :accountId " +
+           "and e.postedAt > :after and e.postedAt <= :upTo")
+    BigDecimal sumByAccountIdBetween(@Param("accountId") Long accountId, @Param("after") LocalDateTime after,
+                                     @Param("upTo") LocalDateTime upTo);
+
+    // Admin deletes: the account's own lines and the bank's side of transactions requested on it.
+    // Other accounts' lines stay, their balances still rest on them
+    @Modifying
+    @Query("delete from LedgerEntry e where e.account.id = :accountId " +
+           "or (e.account is null and e.transaction.id in (select t.id from Transaction t where t.account.id = :accountId))")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("delete from LedgerEntry e where e.account.id in (select a.id from Account a where a.user.id = :userId) " +
+           "or (e.account is null and e.transaction.id in (select t.id from Transaction t where t.account.user.id = :userId))")
+    int deleteByAccountUserId(@Param("userId") Long userId);
+
+    // Run after the deletes above, what is left of the transactions are other accounts' lines
+    @Modifying
+    @Query(nativeQuery = true, value = "update ledger_entries set transaction_id = null " +
+           "where transaction_id in (select t.id from transactions t where t.account_id = :accountId)")
+    int detachFromTransactionsOfAccount(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "update ledger_entries set transaction_id = null " +
+           "where transaction_id in (select t.id from transactions t join accounts a on a.id = t.account_id " +
+           "where a.user_id = :userId)")
+    int detachFromTransactionsOfUser(@Param("userId") Long userId);
+}
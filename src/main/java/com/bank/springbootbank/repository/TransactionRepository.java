@@ -1,13 +1,28 @@
 package com.bank.springbootbank.repository;
 
-import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bank.springbootbank.model.Transaction;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByAccountIdOrderByTransactionDateDesc(Long accountId);
-} 
\ No newline at end of file
+    // Replays of idempotent requests hand the transaction back outside of any session
+    @EntityGraph(attributePaths = "account")
+    Optional<Transaction> findWithAccountById(Long id);
+
+    // Set-based deletes for the admin cascade, one statement however many rows
+    @Modifying
+    @Query("delete from Transaction t where t.account.id = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("delete from Transaction t where t.account.id in (select a.id from Account a where a.user.id = :userId)")
+    int deleteByAccountUserId(@Param("userId") Long userId);
+}
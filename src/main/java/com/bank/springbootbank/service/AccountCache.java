@@ -0,0 +1,125 @@
+package com.bank.springbootbank.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.springbootbank.model.Account;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded read-through cache in front of AccountRepository, keyed by account number and by user id.
+ * Cached accounts are detached snapshots and must be treated as read-only.
+ *
+ * Writers evict only after their transaction commits. A read that loaded from the database
+ * while a write was committing drops its own entry again (see invalidation counter), so a
+ * committed balance change is never hidden behind an older cached one.
+ */
+@Component
+public class AccountCache implements MeterBinder {
+    private final Cache<String, Account> byAccountNumber;
+    private final Cache<Long, List<Account>> byUserId;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public AccountCache(@Value("${bank.cache.accounts.max-size:10000}") long maxSize,
+                        @Value("${bank.cache.accounts.ttl:30s}") Duration ttl) {
+        this.byAccountNumber = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byUserId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Account getByAccountNumber(String accountNumber, Function<String, Account> loader) {
+        return read(byAccountNumber, accountNumber, loader);
+    }
+
+    public List<Account> getByUserId(Long userId, Function<Long, List<Account>> loader) {
+        return read(byUserId, userId, id -> List.copyOf(loader.apply(id)));
+    }
+
+    /**
+     * Evicts the account and its owner's account list once the current transaction commits,
+     * or right away when there is no transaction.
+     */
+    public void evictAfterCommit(String accountNumber, Long userId) {
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            if (accountNumber != null) {
+                byAccountNumber.invalidate(accountNumber);
+            }
+            if (userId != null) {
+                byUserId.invalidate(userId);
+            }
+        });
+    }
+
+    // For set-based writes where the affected keys aren't known (admin deletes)
+    public void evictAllAfterCommit() {
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            byAccountNumber.invalidateAll();
+            byUserId.invalidateAll();
+        });
+    }
+
+    // Hit ratio per cache is cache_gets{result="hit"} over all cache_gets
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byAccountNumber, "accounts.by-number");
+        CaffeineCacheMetrics.monitor(registry, byUserId, "accounts.by-user");
+    }
+
+    public CacheStats accountNumberStats() {
+        return byAccountNumber.stats();
+    }
+
+    public CacheStats userIdStats() {
+        return byUserId.stats();
+    }
+
+    private <K, V> V read(Cache<K, V> cache, K key, Function<K, V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = invalidations.get();
+        V loaded = loader.apply(key);
+        cache.put(key, loaded);
+        if (invalidations.get() != seen) {
+            // A write committed while we were loading, our copy may predate it
+            cache.invalidate(key);
+        }
+        return loaded;
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.bank.springbootbank.service;
+
+/**
+ * Hands out new account numbers and checks the format of numbers typed in by users.
+ * The default implementation is SequenceBlockAccountNumberGenerator, declare another
+ * bean of this type as @Primary to replace it.
+ */
+public interface AccountNumberGenerator {
+
+    String nextAccountNumber();
+
+    /**
+     * Cheap format check done before any database lookup, rejects typos in new-format numbers.
+     */
+    boolean isValid(String accountNumber);
+}
@@ -1,21 +1,26 @@
 package com.bank.springbootbank.service;
 
+import com.bank.springbootbank.dto.AccountSummary;
 import com.bank.springbootbank.model.Admin;
 import com.bank.springbootbank.model.User;
 import com.bank.springbootbank.model.Account;
-import com.bank.springbootbank.model.Transaction;
 import com.bank.springbootbank.repository.AdminRepository;
 import com.bank.springbootbank.repository.UserRepository;
 import com.bank.springbootbank.repository.AccountRepository;
 import com.bank.springbootbank.repository.TransactionRepository;
+import com.bank.springbootbank.repository.LedgerEntryRepository;
+import com.bank.springbootbank.service.PasswordHasher.Verification;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed("bank.operations")
 public class AdminService {
     @Autowired
     private AdminRepository adminRepository;
@@ -29,12 +34,25 @@ public class AdminService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private SessionRevocationStore sessionRevocations;
+
     @Transactional
     public Admin createInitialAdmin(Admin admin) {
         // Check if username already exists
         if (adminRepository.existsByUsername(admin.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
+        admin.setPassword(passwordHasher.hash(admin.getPassword()));
         return adminRepository.save(admin);
     }
 
@@ -50,62 +68,76 @@ public class AdminService {
             throw new RuntimeException("Username already exists");
         }
 
+        newAdmin.setPassword(passwordHasher.hash(newAdmin.getPassword()));
         return adminRepository.save(newAdmin);
     }
 
+    // Same checks as BankService.login, a matching plaintext or outdated hash is rehashed on the spot
     public Optional<Admin> login(String username, String password) {
-        return adminRepository.findByUsername(username)
-                .filter(admin -> admin.getPassword().equals(password));
+        Optional<Admin> found = adminRepository.findByUsername(username);
+        if (found.isEmpty()) {
+            passwordHasher.verifyUnknownUser(password);
+            return Optional.empty();
+        }
+        Admin admin = found.get();
+        Verification verification = passwordHasher.verify(password, admin.getPassword());
+        if (!verification.matched()) {
+            return Optional.empty();
+        }
+        if (verification == Verification.MATCH_NEEDS_REHASH) {
+            String hash = passwordHasher.hash(password);
+            if (adminRepository.upgradePassword(admin.getId(), admin.getPassword(), hash) == 1) {
+                admin.setPassword(hash);
+            }
+        }
+        return found;
     }
 
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
-    public List<Account> getAllAccounts() {
-        return accountRepository.findAll();
+    public List<AccountSummary> getAllAccounts() {
+        return accountRepository.findAllSummaries();
     }
 
+    /**
+     * Deletes a user with all of their accounts and transactions.
+     * Runs as five set-based statements (ledger lines, detaching other accounts' lines, transactions,
+     * accounts, user) instead of loading and deleting every row, so the cost doesn't grow with the size
+     * of the history. The other account's line of a transfer with the user stays, without its transaction,
+     * so that account's ledger still adds up to its balance. The user's sessions end on every node
+     * once the revocation committed with the delete has been synced.
+     */
     @Transactional
     public void deleteUser(Long userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            // First delete all accounts associated with the user
-            List<Account> userAccounts = accountRepository.findByUser(user);
-            for (Account account : userAccounts) {
-                // Delete all transactions for this account
-                List<Transaction> transactions = transactionRepository.findByAccountIdOrderByTransactionDateDesc(account.getId());
-                for (Transaction transaction : transactions) {
-                    transactionRepository.delete(transaction);
-                }
-                // Then delete the account
-                accountRepository.delete(account);
-            }
-            // Finally delete the user
-            userRepository.delete(user);
-        } else {
+        accountCache.evictAllAfterCommit();
+        ledgerEntryRepository.deleteByAccountUserId(userId);
+        ledgerEntryRepository.detachFromTransactionsOfUser(userId);
+        transactionRepository.deleteByAccountUserId(userId);
+        accountRepository.deleteByUserId(userId);
+        if (userRepository.deleteUserById(userId) == 0) {
+            // Nothing else can have matched either, the exception rolls the transaction back anyway
             throw new RuntimeException("User not found");
         }
+        sessionRevocations.revokeUser(userId);
     }
 
     @Transactional
     public void deleteAccount(Long accountId) {
-        Optional<Account> accountOpt = accountRepository.findById(accountId);
-        if (accountOpt.isPresent()) {
-            Account account = accountOpt.get();
-            // Delete all transactions for this account
-            List<Transaction> transactions = transactionRepository.findByAccountIdOrderByTransactionDateDesc(account.getId());
-            for (Transaction transaction : transactions) {
-                transactionRepository.delete(transaction);
-            }
-            // Then delete the account
-            accountRepository.delete(account);
-        } else {
+        accountCache.evictAllAfterCommit();
+        ledgerEntryRepository.deleteByAccountId(accountId);
+        ledgerEntryRepository.detachFromTransactionsOfAccount(accountId);
+        transactionRepository.deleteByAccountId(accountId);
+        if (accountRepository.deleteAccountById(accountId) == 0) {
             throw new RuntimeException("Account not found");
         }
     }
 
+    public Optional<Admin> getAdminById(Long adminId) {
+        return adminRepository.findById(adminId);
+    }
+
     public Optional<User> getUserById(Long userId) {
         return userRepository.findById(userId);
     }
@@ -0,0 +1,243 @@
+package com.bank.springbootbank.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.bank.springbootbank.model.Money;
+
+/**
+ * Looks up the APY a balance earns, from the tier tables of the configured ApyTierSource.
+ *
+ * The tiers are compiled into one schedule per account type: the effective dates as a sorted
+ * array, and per date a table of minimum balances (sorted cents) with their rates. A lookup is
+ * two binary searches over arrays, with no allocation and no lock. A reload swaps in a freshly
+ * compiled snapshot, readers keep using the one they started with.
+ *
+ * The source is polled every bank.rates.reload-interval. Whenever the table in effect today
+ * changes for an account type, because the source changed or a new effective date arrived,
+ * the stored APY of its accounts is re-tiered by ApyRetierService. The rates each type was last
+ * re-tiered to are kept in apy_tiers_applied, so a change made while the application was down
+ * is picked up once it has started.
+ */
+@Service
+public class ApyRateEngine {
+    private static final Logger log = LoggerFactory.getLogger(ApyRateEngine.class);
+
+    private final ApyTierSource source;
+    private final ApyRetierService retierService;
+    private volatile Compiled compiled;
+    // Rates (TierTable.rates()) each account type's stored APYs were last tiered against
+    private final Map<String, String> applied = new HashMap<>();
+
+    /**
+     * One tier table: minimumCents ascending, apys[i] applies from minimumCents[i] up to the next minimum.
+     */
+    public static final class TierTable {
+        private final LocalDate effectiveFrom;
+        private final long[] minimumCents;
+        private final BigDecimal[] apys;
+
+        TierTable(LocalDate effectiveFrom, long[] minimumCents, BigDecimal[] apys) {
+            this.effectiveFrom = effectiveFrom;
+            this.minimumCents = minimumCents;
+            this.apys = apys;
+        }
+
+        public LocalDate effectiveFrom() {
+            return effectiveFrom;
+        }
+
+        public int size() {
+            return minimumCents.length;
+        }
+
+        public Money minimum(int tier) {
+            return Money.ofCents(minimumCents[tier]);
+        }
+
+        public BigDecimal apy(int tier) {
+            return apys[tier];
+        }
+
+        // Rate of the highest tier the balance reaches, zero below the lowest one
+        public BigDecimal apyFor(long cents) {
+            int tier = floorIndex(Arrays.binarySearch(minimumCents, cents));
+            return tier < 0 ? BigDecimal.ZERO : apys[tier];
+        }
+
+        // Bands and rates, whatever the effective date: "minimumCents=apy,..."
+        public String rates() {
+            StringBuilder rates = new StringBuilder();
+            for (int i = 0; i < minimumCents.length; i++) {
+                if (i > 0) {
+                    rates.append(',');
+                }
+                rates.append(minimumCents[i]).append('=').append(apys[i].stripTrailingZeros().toPlainString());
+            }
+            return rates.toString();
+        }
+    }
+
+    private record Schedule(LocalDate[] effectiveDates, TierTable[] tables) {
+        TierTable tableOn(LocalDate date) {
+            int index = floorIndex(Arrays.binarySearch(effectiveDates, date));
+            return index < 0 ? null : tables[index];
+        }
+    }
+
+    private record Compiled(List<ApyTier> tiers, Map<String, Schedule> schedules) {
+    }
+
+    @Autowired
+    public ApyRateEngine(ApyTierSource source, ApyRetierService retierService) {
+        this.source = source;
+        this.retierService = retierService;
+        this.compiled = compile(source.loadTiers());
+        applied.putAll(retierService.appliedRates());
+        log.info("Loaded APY tiers for {}", compiled.schedules().keySet());
+    }
+
+    /**
+     * Catches up on tier changes made while the application was down, or on a new effective date
+     * that arrived meanwhile.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void retierChangedSinceLastRun() {
+        retierChanged();
+    }
+
+    /**
+     * The APY a balance in an account of this type earns on the given date, zero if no tier applies.
+     */
+    public BigDecimal apyFor(String accountType, Money balance, LocalDate date) {
+        TierTable table = tableOn(accountType, date);
+        return table == null ? BigDecimal.ZERO : table.apyFor(balance.cents());
+    }
+
+    public TierTable tableOn(String accountType, LocalDate date) {
+        Schedule schedule = compiled.schedules().get(accountType);
+        return schedule == null ? null : schedule.tableOn(date);
+    }
+
+    /**
+     * Reloads the tiers and re-tiers the account types whose table in effect today changed.
+     * A source that fails to load, or loads invalid tiers, leaves the current tables in place.
+     */
+    @Scheduled(fixedDelayString = "${bank.rates.reload-interval:PT1M}",
+               initialDelayString = "${bank.rates.reload-interval:PT1M}")
+    public synchronized void reload() {
+        List<ApyTier> tiers;
+        try {
+            tiers = sorted(source.loadTiers());
+            if (!tiers.equals(compiled.tiers())) {
+                compiled = compile(tiers);
+                log.info("Reloaded APY tiers for {}", compiled.schedules().keySet());
+            }
+        } catch (RuntimeException e) {
+            log.warn("APY tier reload failed, keeping the current tables: {}", e.getMessage());
+            return;
+        }
+        retierChanged();
+    }
+
+    private void retierChanged() {
+        LocalDate today = LocalDate.now();
+        compiled.schedules().forEach((type, schedule) -> {
+            TierTable current = schedule.tableOn(today);
+            if (current != null && !current.rates().equals(applied.get(type))) {
+                retier(type, current);
+            }
+        });
+    }
+
+    /**
+     * Re-tiers every account type against its table in effect today, whether it changed or not.
+     */
+    public synchronized List<ApyRetierService.RetierReport> retierAll() {
+        LocalDate today = LocalDate.now();
+        List<ApyRetierService.RetierReport> reports = new ArrayList<>();
+        compiled.schedules().forEach((type, schedule) -> {
+            TierTable current = schedule.tableOn(today);
+            if (current != null) {
+                reports.add(retier(type, current));
+            }
+        });
+        return reports;
+    }
+
+    private ApyRetierService.RetierReport retier(String accountType, TierTable table) {
+        ApyRetierService.RetierReport report = retierService.retier(accountType, table);
+        // Only remembered once every chunk is through, a partial run is repeated on the next reload
+        if (report.failedChunks() == 0) {
+            retierService.recordApplied(accountType, table);
+            applied.put(accountType, table.rates());
+        }
+        log.info("Re-tiered {} accounts to the table effective {}: {} of {} scanned changed, {} of {} chunks failed in {}",
+                accountType, table.effectiveFrom(), report.accountsChanged(), report.accountsScanned(),
+                report.failedChunks(), report.chunks(), report.elapsed());
+        return report;
+    }
+
+    static Compiled compile(List<ApyTier> tiers) {
+        // account type -> effective date -> minimum cents -> apy
+        Map<String, TreeMap<LocalDate, TreeMap<Long, BigDecimal>>> grouped = new HashMap<>();
+        for (ApyTier tier : tiers) {
+            if (tier.accountType() == null || tier.effectiveFrom() == null
+                    || tier.minimumBalance() == null || tier.apy() == null) {
+                throw new IllegalArgumentException("APY tiers need an account type, date, minimum and rate");
+            }
+            if (tier.minimumBalance().signum() < 0 || tier.apy().signum() < 0) {
+                throw new IllegalArgumentException("Invalid APY tier " + tier);
+            }
+            BigDecimal previous = grouped
+                    .computeIfAbsent(tier.accountType(), type -> new TreeMap<>())
+                    .computeIfAbsent(tier.effectiveFrom(), date -> new TreeMap<>())
+                    .put(tier.minimumBalance().cents(), tier.apy());
+            if (previous != null) {
+                throw new IllegalArgumentException("Duplicate APY tier " + tier);
+            }
+        }
+
+        Map<String, Schedule> schedules = new HashMap<>();
+        grouped.forEach((type, byDate) -> {
+            LocalDate[] dates = byDate.keySet().toArray(new LocalDate[0]);
+            TierTable[] tables = new TierTable[dates.length];
+            for (int i = 0; i < dates.length; i++) {
+                TreeMap<Long, BigDecimal> bands = byDate.get(dates[i]);
+                tables[i] = new TierTable(dates[i],
+                        bands.keySet().stream().mapToLong(Long::longValue).toArray(),
+                        bands.values().toArray(new BigDecimal[0]));
+            }
+            schedules.put(type, new Schedule(dates, tables));
+        });
+        return new Compiled(sorted(tiers), Map.copyOf(schedules));
+    }
+
+    // Sources may list tiers in any order, compared sorted so only a real change recompiles
+    private static List<ApyTier> sorted(List<ApyTier> tiers) {
+        List<ApyTier> sorted = new ArrayList<>(tiers);
+        sorted.sort(Comparator.comparing(ApyTier::accountType).thenComparing(ApyTier::effectiveFrom)
+                .thenComparing(ApyTier::minimumBalance));
+        return List.copyOf(sorted);
+    }
+
+    // Index of the last element <= the key, from an Arrays.binarySearch result; -1 if there is none
+    private static int floorIndex(int searchResult) {
+        return searchResult >= 0 ? searchResult : -searchResult - 2;
+    }
+}
@@ -0,0 +1,133 @@
+package com.bank.springbootbank.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.springbootbank.repository.AccountRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+/**
+ * Moves the stored APY of every account of a type onto a new tier table.
+ * Each chunk of account ids is one set-based update that picks the rate from the balance with a
+ * CASE over the tiers, so no account is loaded into the persistence context. Rows that already
+ * carry the right rate are left alone. Chunks commit on their own; a failed chunk is reported
+ * and the engine runs the whole re-tier again on its next reload.
+ */
+@Service
+public class ApyRetierService {
+    private static final Logger log = LoggerFactory.getLogger(ApyRetierService.class);
+
+    private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public record RetierReport(String accountType, long accountsScanned, long accountsChanged, int chunks,
+                               int failedChunks, Duration elapsed) {
+    }
+
+    @Autowired
+    public ApyRetierService(AccountRepository accountRepository, AccountCache accountCache,
+                            EntityManager entityManager, JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${bank.rates.retier-chunk-size:10000}") int chunkSize) {
+        this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public RetierReport retier(String accountType, ApyRateEngine.TierTable table) {
+        long started = System.nanoTime();
+        String update = retierUpdate(table);
+        long scanned = 0;
+        long changed = 0;
+        int chunks = 0;
+        int failed = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = accountRepository.findIdsAfter(afterId, Limit.of(chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Long fromId = ids.get(0);
+            Long toId = ids.get(ids.size() - 1);
+            try {
+                changed += transactionTemplate.execute(status -> {
+                    Query query = entityManager.createQuery(update)
+                            .setParameter("accountType", accountType)
+                            .setParameter("fromId", fromId)
+                            .setParameter("toId", toId)
+                            .setParameter("now", LocalDateTime.now())
+                            .setParameter("belowLowest", BigDecimal.ZERO);
+                    for (int tier = 0; tier < table.size(); tier++) {
+                        query.setParameter("minimum" + tier, table.minimum(tier))
+                                .setParameter("apy" + tier, table.apy(tier));
+                    }
+                    int rows = query.executeUpdate();
+                    if (rows > 0) {
+                        accountCache.evictAllAfterCommit();
+                    }
+                    return rows;
+                });
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Re-tier chunk {}..{} failed: {}", fromId, toId, e.getMessage());
+            }
+            scanned += ids.size();
+            chunks++;
+            afterId = toId;
+        }
+        return new RetierReport(accountType, scanned, changed, chunks, failed,
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    /**
+     * The rates (TierTable.rates()) each account type was last fully re-tiered to.
+     */
+    public Map<String, String> appliedRates() {
+        return jdbcTemplate.query("select account_type, rates from apy_tiers_applied",
+                (rs, row) -> Map.entry(rs.getString(1), rs.getString(2)))
+                .stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    public void recordApplied(String accountType, ApyRateEngine.TierTable table) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from apy_tiers_applied where account_type = ?", accountType);
+            jdbcTemplate.update("insert into apy_tiers_applied (account_type, effective_from, rates, applied_at) "
+                    + "values (?, ?, ?, ?)", accountType, table.effectiveFrom(), table.rates(), LocalDateTime.now());
+        });
+    }
+
+    // Highest tier first, the first band the balance reaches wins; below the lowest tier earns nothing
+    private static String retierUpdate(ApyRateEngine.TierTable table) {
+        StringBuilder rate = new StringBuilder("case");
+        for (int tier = table.size() - 1; tier >= 0; tier--) {
+            rate.append(" when a.balance >= :minimum").append(tier).append(" then :apy").append(tier);
+        }
+        rate.append(" else :belowLowest end");
+        return "update Account a set a.apy = " + rate + ", a.updatedAt = :now " +
+               "where a.accountType = :accountType and a.id between :fromId and :toId " +
+               "and (a.apy is null or a.apy <> " + rate + ")";
+    }
+}
@@ -0,0 +1,13 @@
+package com.bank.springbootbank.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.bank.springbootbank.model.Money;
+
+/**
+ * One row of an APY tier table: from effectiveFrom on, balances of at least minimumBalance
+ * in accounts of this type earn apy (unless a higher tier of the same table applies).
+ */
+public record ApyTier(String accountType, LocalDate effectiveFrom, Money minimumBalance, BigDecimal apy) {
+}
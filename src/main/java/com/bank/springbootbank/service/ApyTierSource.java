@@ -0,0 +1,10 @@
+package com.bank.springbootbank.service;
+
+import java.util.List;
+
+/**
+ * Where the rate engine reads its tier tables from, on startup and on every reload.
+ */
+public interface ApyTierSource {
+    List<ApyTier> loadTiers();
+}
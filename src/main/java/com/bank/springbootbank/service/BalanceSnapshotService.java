@@ -0,0 +1,93 @@
+package com.bank.springbootbank.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.springbootbank.repository.AccountRepository;
+import com.bank.springbootbank.repository.BalanceSnapshotRepository;
+
+/**
+ * Keeps balance snapshots up to date so a balance never has to be summed over the whole ledger.
+ * Every run picks one cutoff for all accounts and, chunk by chunk, adds the lines each account
+ * posted since its latest snapshot. A run costs the lines posted since the previous run, not the
+ * size of the history.
+ *
+ * The cutoff trails the clock by bank.snapshots.safety-lag: ledger ids come from pooled sequence
+ * blocks and posted_at is set before commit, so the newest lines are only trusted once every
+ * transaction that could still carry an older timestamp has committed.
+ */
+@Service
+public class BalanceSnapshotService {
+    private static final Logger log = LoggerFactory.getLogger(BalanceSnapshotService.class);
+
+    private final AccountRepository accountRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration safetyLag;
+    private final int chunkSize;
+
+    public record SnapshotReport(LocalDateTime asOf, long accountsScanned, long snapshotsWritten, int chunks,
+                                 Duration elapsed) {
+    }
+
+    @Autowired
+    public BalanceSnapshotService(AccountRepository accountRepository,
+                                  BalanceSnapshotRepository balanceSnapshotRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${bank.snapshots.safety-lag:PT5M}") Duration safetyLag,
+                                  @Value("${bank.snapshots.chunk-size:1000}") int chunkSize) {
+        this.accountRepository = accountRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.safetyLag = safetyLag;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${bank.snapshots.cron:0 */15 * * * *}")
+    public void takeScheduledSnapshots() {
+        SnapshotReport report = takeSnapshots(LocalDateTime.now().minus(safetyLag));
+        log.info("Balance snapshots as of {}: {} accounts scanned, {} snapshots written in {} chunks in {}",
+                report.asOf(), report.accountsScanned(), report.snapshotsWritten(), report.chunks(), report.elapsed());
+    }
+
+    /**
+     * Snapshots every account with new ledger lines as of the cutoff. Each chunk commits on its own,
+     * running the same cutoff again only writes what an interrupted run left out.
+     */
+    public SnapshotReport takeSnapshots(LocalDateTime asOf) {
+        LocalDateTime now = LocalDateTime.now();
+        if (asOf.isAfter(now)) {
+            throw new IllegalArgumentException("Snapshot cutoff can't be in the future");
+        }
+        long started = System.nanoTime();
+        long scanned = 0;
+        long written = 0;
+        int chunks = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = accountRepository.findIdsAfter(afterId, Limit.of(chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Long fromId = ids.get(0);
+            Long toId = ids.get(ids.size() - 1);
+            written += transactionTemplate.execute(status ->
+                    balanceSnapshotRepository.snapshotAccounts(fromId, toId, asOf, now));
+            scanned += ids.size();
+            chunks++;
+            afterId = toId;
+        }
+        return new SnapshotReport(asOf, scanned, written, chunks, Duration.ofNanos(System.nanoTime() - started));
+    }
+}
@@ -1,59 +1,157 @@
 package com.bank.springbootbank.service;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bank.springbootbank.dto.TransactionLine;
+import com.bank.springbootbank.dto.TransactionPage;
 import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.Money;
 import com.bank.springbootbank.model.Transaction;
+import com.bank.springbootbank.model.TransactionType;
 import com.bank.springbootbank.model.User;
 import com.bank.springbootbank.repository.AccountRepository;
+import com.bank.springbootbank.repository.LedgerEntryRepository;
 import com.bank.springbootbank.repository.TransactionRepository;
 import com.bank.springbootbank.repository.UserRepository;
+import com.bank.springbootbank.service.PasswordHasher.Verification;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Every public method is timed as bank.operations{class, method, exception}
 @Service
+@Timed("bank.operations")
 public class BankService {
+    private static final int MAX_HISTORY_PAGE_SIZE = 500;
+
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
     private final UserRepository userRepository;
+    private final AccountLockManager accountLockManager;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final AccountCache accountCache;
+    private final IdempotencyService idempotencyService;
+    private final LedgerService ledgerService;
+    private final ApyRateEngine rateEngine;
+    private final PasswordHasher passwordHasher;
+    private final RegisteredUserFilter registeredUsers;
+    private final int maxTransferAttempts;
+    private final Counter overdraftWithdrawals;
+    private final Counter overdraftTransfers;
+    private final Counter transferLockRetries;
+    private final Counter transferLockFailures;
 
     @Autowired
-    public BankService(AccountRepository accountRepository, TransactionRepository transactionRepository, UserRepository userRepository) {
+    public BankService(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                       LedgerEntryRepository ledgerEntryRepository, UserRepository userRepository,
+                       AccountLockManager accountLockManager, AccountNumberGenerator accountNumberGenerator,
+                       AccountCache accountCache, IdempotencyService idempotencyService,
+                       LedgerService ledgerService, ApyRateEngine rateEngine, PasswordHasher passwordHasher,
+                       RegisteredUserFilter registeredUsers,
+                       MeterRegistry meterRegistry,
+                       @Value("${bank.transfer.max-attempts:3}") int maxTransferAttempts) {
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
         this.userRepository = userRepository;
+        this.accountLockManager = accountLockManager;
+        this.accountNumberGenerator = accountNumberGenerator;
+        this.accountCache = accountCache;
+        this.idempotencyService = idempotencyService;
+        this.ledgerService = ledgerService;
+        this.rateEngine = rateEngine;
+        this.passwordHasher = passwordHasher;
+        this.registeredUsers = registeredUsers;
+        this.maxTransferAttempts = maxTransferAttempts;
+        this.overdraftWithdrawals = Counter.builder("bank.insufficient-funds")
+                .description("Postings rejected for insufficient funds")
+                .tag("operation", "withdrawal")
+                .register(meterRegistry);
+        this.overdraftTransfers = Counter.builder("bank.insufficient-funds")
+                .description("Postings rejected for insufficient funds")
+                .tag("operation", "transfer")
+                .register(meterRegistry);
+        this.transferLockRetries = Counter.builder("bank.transfer.lock-retries")
+                .description("Transfers retried after losing a row lock (deadlock victim or lock timeout)")
+                .register(meterRegistry);
+        this.transferLockFailures = Counter.builder("bank.transfer.lock-failures")
+                .description("Transfers that lost their row locks on every attempt")
+                .register(meterRegistry);
     }
 
-    @Transactional
+    /**
+     * The existence checks only query the database when the RegisteredUserFilter says the name or
+     * email might be taken. A duplicate the filter missed is caught by the unique constraints.
+     * Not transactional: the bcrypt hash is computed on the PasswordHasher pool before the insert
+     * takes a connection, the insert is the only write.
+     */
     public User registerUser(String username, String password, String fullName, 
                            String address, String phoneNumber, String email) {
-        if (userRepository.existsByUsername(username)) {
+        if (registeredUsers.usernameExists(username)) {
             throw new RuntimeException("Username already exists");
         }
-        if (userRepository.existsByEmail(email)) {
+        if (registeredUsers.emailExists(email)) {
             throw new RuntimeException("Email already registered");
         }
 
         User user = new User();
         user.setUsername(username);
-        user.setPassword(password); // In production, use proper password hashing
+        user.setPassword(passwordHasher.hash(password));
         user.setFullName(fullName);
         user.setAddress(address);
         user.setPhoneNumber(phoneNumber);
         user.setEmail(email);
         user.setAdmin(false);
 
-        return userRepository.save(user);
+        registeredUsers.added(username, email);
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw RegisteredUserFilter.duplicateUser(e);
+        }
     }
 
+    /**
+     * Checks the password on the PasswordHasher pool, outside any database transaction.
+     * A plaintext or outdated hash that matched is replaced by a fresh hash right away.
+     */
     public User login(String username, String password) {
-        return userRepository.findByUsername(username)
-                .filter(user -> user.getPassword().equals(password)) // In production, use proper password comparison
-                .orElseThrow(() -> new RuntimeException("Invalid username or password"));
+        Optional<User> found = userRepository.findByUsername(username);
+        if (found.isEmpty()) {
+            passwordHasher.verifyUnknownUser(password);
+            throw new RuntimeException("Invalid username or password");
+        }
+        User user = found.get();
+        Verification verification = passwordHasher.verify(password, user.getPassword());
+        if (!verification.matched()) {
+            throw new RuntimeException("Invalid username or password");
+        }
+        if (verification == Verification.MATCH_NEEDS_REHASH) {
+            String hash = passwordHasher.hash(password);
+            if (userRepository.upgradePassword(user.getId(), user.getPassword(), hash) == 1) {
+                user.setPassword(hash);
+            }
+        }
+        return user;
     }
 
     @Transactional
@@ -69,8 +167,9 @@ public class BankService {
         account.setUser(user);
         account.setAccountHolderName(user.getFullName());
         account.setAccountType(accountType);
-        account.setBalance(BigDecimal.ZERO);
-        account.setAccountNumber(generateAccountNumber());
+        account.setBalance(Money.ZERO);
+        account.setAccountNumber(accountNumberGenerator.nextAccountNumber());
+        accountCache.evictAfterCommit(null, user.getId()); // the user's account list changes
         return accountRepository.save(account);
     }
 
@@ -82,96 +181,263 @@ public class BankService {
         return accounts;
     }
 
+    /**
+     * Credits the account with a single conditional UPDATE instead of a read-modify-write,
+     * so concurrent deposits can't overwrite each other. The account is read back afterwards
+     * only to attach it to the transaction and report the new balance.
+     */
     @Transactional
     public Transaction deposit(String accountNumber, BigDecimal amount) {
-        Account account = getAccountByNumber(accountNumber);
-        account.setBalance(account.getBalance().add(amount));
-        
-        // Set APY for savings accounts based on initial deposit
-        if (account.getAccountType().equals("SAVINGS") && account.getBalance().equals(amount)) {
-            // APY tiers based on initial deposit
-            if (amount.compareTo(new BigDecimal("10000")) >= 0) {
-                account.setApy(new BigDecimal("0.05")); // 5% APY for deposits >= $10,000
-            } else if (amount.compareTo(new BigDecimal("5000")) >= 0) {
-                account.setApy(new BigDecimal("0.04")); // 4% APY for deposits >= $5,000
-            } else if (amount.compareTo(new BigDecimal("1000")) >= 0) {
-                account.setApy(new BigDecimal("0.03")); // 3% APY for deposits >= $1,000
-            } else {
-                account.setApy(new BigDecimal("0.02")); // 2% APY for deposits < $1,000
-            }
-            System.out.println("\nAPY set to " + account.getApy().multiply(new BigDecimal("100")) + "% based on initial deposit");
+        requireValidAccountNumber(accountNumber);
+        Money money = requirePositiveAmount(amount);
+        if (accountRepository.creditBalance(accountNumber, money, initialApyFor(money), LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Account not found");
         }
-        
-        accountRepository.save(account);
+        Account account = getAccountByNumber(accountNumber);
+        accountCache.evictAfterCommit(accountNumber, account.getUser().getId());
 
         Transaction transaction = new Transaction();
         transaction.setAccount(account);
-        transaction.setAmount(amount);
-        transaction.setTransactionType("DEPOSIT");
-        return transactionRepository.save(transaction);
+        transaction.setAmount(money);
+        transaction.setTransactionType(TransactionType.DEPOSIT);
+        transaction = transactionRepository.save(transaction);
+        ledgerService.post(transaction, null, account);
+        return transaction;
+    }
+
+    /**
+     * Deposit that is posted at most once per idempotency key, a retry with the same key
+     * gets the first request's transaction back without touching the balance.
+     */
+    public Transaction deposit(String accountNumber, BigDecimal amount, String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, fingerprint("DEPOSIT", accountNumber, null, amount),
+                () -> deposit(accountNumber, amount));
     }
 
     @Transactional
     public Transaction withdraw(String accountNumber, BigDecimal amount) {
-        Account account = getAccountByNumber(accountNumber);
-        if (account.getBalance().compareTo(amount) < 0) {
+        requireValidAccountNumber(accountNumber);
+        Money money = requirePositiveAmount(amount);
+        if (accountRepository.debitBalance(accountNumber, money, LocalDateTime.now()) == 0) {
+            // Nothing was updated, only now find out whether the account exists at all
+            if (!accountRepository.existsByAccountNumber(accountNumber)) {
+                throw new RuntimeException("Account not found");
+            }
+            overdraftWithdrawals.increment();
             throw new RuntimeException("Insufficient funds");
         }
-        account.setBalance(account.getBalance().subtract(amount));
-        accountRepository.save(account);
+        Account account = getAccountByNumber(accountNumber);
+        accountCache.evictAfterCommit(accountNumber, account.getUser().getId());
 
         Transaction transaction = new Transaction();
         transaction.setAccount(account);
-        transaction.setAmount(amount);
-        transaction.setTransactionType("WITHDRAWAL");
-        return transactionRepository.save(transaction);
+        transaction.setAmount(money);
+        transaction.setTransactionType(TransactionType.WITHDRAWAL);
+        transaction = transactionRepository.save(transaction);
+        ledgerService.post(transaction, account, null);
+        return transaction;
     }
 
-    @Transactional
+    public Transaction withdraw(String accountNumber, BigDecimal amount, String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, fingerprint("WITHDRAWAL", accountNumber, null, amount),
+                () -> withdraw(accountNumber, amount));
+    }
+
+    /**
+     * Moves money between two accounts.
+     * The in-JVM stripe locks are taken before the database transaction starts so waiting
+     * transfers don't hold a pooled connection. Inside the transaction both rows are locked
+     * with SELECT ... FOR UPDATE in account-number order. A transfer that loses a lock
+     * (deadlock victim or lock timeout) is retried up to bank.transfer.max-attempts times.
+     */
     public Transaction transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) {
-        Account fromAccount = getAccountByNumber(fromAccountNumber);
-        Account toAccount = getAccountByNumber(toAccountNumber);
+        return transfer(fromAccountNumber, toAccountNumber, amount, null);
+    }
 
-        if (fromAccount.getBalance().compareTo(amount) < 0) {
+    // Each retry claims the key again, the failed attempt's claim was rolled back with it
+    public Transaction transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount, String idempotencyKey) {
+        requireValidAccountNumber(fromAccountNumber);
+        requireValidAccountNumber(toAccountNumber);
+        Money money = requirePositiveAmount(amount);
+        if (fromAccountNumber.equals(toAccountNumber)) {
+            throw new RuntimeException("Cannot transfer to the same account");
+        }
+        return accountLockManager.withAccountLocks(fromAccountNumber, toAccountNumber,
+                () -> transferWithRetry(fromAccountNumber, toAccountNumber, money, idempotencyKey));
+    }
+
+    private Transaction transferWithRetry(String fromAccountNumber, String toAccountNumber, Money amount,
+                                          String idempotencyKey) {
+        String fingerprint = fingerprint("TRANSFER", fromAccountNumber, toAccountNumber, amount.toBigDecimal());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return idempotencyService.execute(idempotencyKey, fingerprint,
+                        () -> executeTransfer(fromAccountNumber, toAccountNumber, amount));
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= maxTransferAttempts) {
+                    transferLockFailures.increment();
+                    throw e;
+                }
+                transferLockRetries.increment();
+            }
+        }
+    }
+
+    private Transaction executeTransfer(String fromAccountNumber, String toAccountNumber, Money amount) {
+        // Always lock the lower account number first so opposing transfers can't deadlock
+        boolean fromLocksFirst = fromAccountNumber.compareTo(toAccountNumber) <= 0;
+        Account firstLocked = lockAccountByNumber(fromLocksFirst ? fromAccountNumber : toAccountNumber);
+        Account secondLocked = lockAccountByNumber(fromLocksFirst ? toAccountNumber : fromAccountNumber);
+        Account fromAccount = fromLocksFirst ? firstLocked : secondLocked;
+        Account toAccount = fromLocksFirst ? secondLocked : firstLocked;
+
+        if (fromAccount.getBalance().isLessThan(amount)) {
+            overdraftTransfers.increment();
             throw new RuntimeException("Insufficient funds");
         }
 
         // Withdraw from source account
-        fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
+        fromAccount.setBalance(fromAccount.getBalance().minus(amount));
         accountRepository.save(fromAccount);
 
         // Deposit to target account
-        toAccount.setBalance(toAccount.getBalance().add(amount));
+        toAccount.setBalance(toAccount.getBalance().plus(amount));
         accountRepository.save(toAccount);
 
-        // Create transfer transaction
+        accountCache.evictAfterCommit(fromAccountNumber, fromAccount.getUser().getId());
+        accountCache.evictAfterCommit(toAccountNumber, toAccount.getUser().getId());
+
+        // One transaction, a debit line on the source and a credit line on the target
         Transaction transaction = new Transaction();
         transaction.setAccount(fromAccount);
         transaction.setAmount(amount);
-        transaction.setTransactionType("TRANSFER");
-        return transactionRepository.save(transaction);
+        transaction.setTransactionType(TransactionType.TRANSFER);
+        transaction = transactionRepository.save(transaction);
+        ledgerService.post(transaction, fromAccount, toAccount);
+        return transaction;
     }
 
-    public List<Transaction> getTransactionHistory(String accountNumber) {
+    /**
+     * Returns one page of the account's ledger lines, newest first, using keyset pagination on (posted_at, id).
+     * Pass null as the token for the first page and the page's nextPageToken for the following ones,
+     * every page costs the same no matter how deep into the history it is.
+     */
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactionHistory(String accountNumber, int pageSize, String continuationToken) {
+        if (pageSize < 1 || pageSize > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
         Account account = getAccountByNumber(accountNumber);
-        return transactionRepository.findByAccountIdOrderByTransactionDateDesc(account.getId());
+
+        // Ask for one extra row to find out whether there is another page
+        Limit limit = Limit.of(pageSize + 1);
+        List<TransactionLine> rows;
+        if (continuationToken == null || continuationToken.isBlank()) {
+            rows = ledgerEntryRepository.findLatestByAccountId(account.getId(), limit);
+        } else {
+            HistoryCursor cursor = HistoryCursor.decode(continuationToken);
+            rows = ledgerEntryRepository.findByAccountIdBefore(account.getId(), cursor.transactionDate(), cursor.id(), limit);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new TransactionPage(rows, null);
+        }
+        List<TransactionLine> page = rows.subList(0, pageSize);
+        TransactionLine last = page.get(pageSize - 1);
+        return new TransactionPage(List.copyOf(page), new HistoryCursor(last.transactionDate(), last.id()).encode());
     }
 
+    /**
+     * Streams the full history of an account to the consumer for exports, newest first.
+     * Rows come through a server-side cursor as projections, nothing piles up in the persistence context.
+     * Returns the number of lines exported.
+     */
+    @Transactional(readOnly = true)
+    public long exportTransactionHistory(String accountNumber, Consumer<TransactionLine> consumer) {
+        Account account = getAccountByNumber(accountNumber);
+        long exported = 0;
+        try (Stream<TransactionLine> lines = ledgerEntryRepository.streamByAccountId(account.getId())) {
+            for (TransactionLine line : (Iterable<TransactionLine>) lines::iterator) {
+                consumer.accept(line);
+                exported++;
+            }
+        }
+        return exported;
+    }
+
+    /**
+     * Balance of the account at the given time, from the nearest balance snapshot plus the ledger lines since.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getBalanceAt(String accountNumber, LocalDateTime at) {
+        Account account = getAccountByNumber(accountNumber);
+        return ledgerService.balanceAt(account.getId(), at);
+    }
+
+    // Read-only lookups go through the account cache, write paths always read the database
     public Account getAccount(String accountNumber) {
-        return getAccountByNumber(accountNumber);
+        requireValidAccountNumber(accountNumber);
+        return accountCache.getByAccountNumber(accountNumber, this::getAccountByNumber);
     }
 
     public List<Account> getUserAccounts(User user) {
-        return accountRepository.findByUserId(user.getId());
+        return accountCache.getByUserId(user.getId(), accountRepository::findByUserId);
     }
 
     private Account getAccountByNumber(String accountNumber) {
+        requireValidAccountNumber(accountNumber);
         return accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
     }
 
-    private String generateAccountNumber() {
-        // Simple implementation - in production, use a more robust method
-        return String.format("%010d", System.nanoTime() % 10000000000L);
+    // APY tier of the initial deposit, from the tier table in effect today
+    private BigDecimal initialApyFor(Money amount) {
+        return rateEngine.apyFor("SAVINGS", amount, LocalDate.now());
+    }
+
+    // Rejects typos from the check digit alone, before any database round trip
+    private void requireValidAccountNumber(String accountNumber) {
+        if (!accountNumberGenerator.isValid(accountNumber)) {
+            throw new RuntimeException("Invalid account number");
+        }
+    }
+
+    // 10 and 10.00 are the same request
+    private static String fingerprint(String operation, String accountNumber, String otherAccountNumber, BigDecimal amount) {
+        return operation + "|" + accountNumber + "|" + (otherAccountNumber != null ? otherAccountNumber : "")
+                + "|" + (amount != null ? amount.stripTrailingZeros().toPlainString() : "");
+    }
+
+    // The console checks this before calling, API clients can send anything.
+    // Converted to cents once here, everything past this point compares longs.
+    private static Money requirePositiveAmount(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new RuntimeException("Amount must be greater than zero");
+        }
+        return Money.of(amount);
+    }
+
+    private Account lockAccountByNumber(String accountNumber) {
+        return accountRepository.findByAccountNumberForUpdate(accountNumber)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+    }
+
+    // Position of the last row on a history page, handed to clients as an opaque token
+    private record HistoryCursor(LocalDateTime transactionDate, Long id) {
+        String encode() {
+            String raw = transactionDate + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid continuation token");
+            }
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.bank.springbootbank.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Probabilistic set of strings: mightContain is never false for a key that was put, and true
+ * for a key that wasn't with about the false-positive probability it was sized for.
+ * Keys are hashed with a seed so one filter can hold several kinds (usernames, emails) apart.
+ * Safe for concurrent puts and lookups, bits are only ever set.
+ */
+public final class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long capacity;
+    private final LongAdder entries = new LongAdder();
+
+    private BloomFilter(long bits, int hashes, long capacity) {
+        this.words = new AtomicLongArray(Math.toIntExact((bits + 63) / 64));
+        this.bits = words.length() * 64L;
+        this.hashes = hashes;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Sized so that capacity keys give the false-positive probability fpp:
+     * bits = -n ln p / (ln 2)^2, hashes = bits / n * ln 2.
+     */
+    public static BloomFilter forCapacity(long capacity, double fpp) {
+        if (capacity < 1 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("Bloom filter needs a positive capacity and 0 < fpp < 1");
+        }
+        long bits = Math.max(64, (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        int hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        return new BloomFilter(bits, hashes, capacity);
+    }
+
+    public void put(long seed, CharSequence key) {
+        long h1 = hash(seed, key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+        boolean changed = false;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.getAndUpdate(word, value -> value | mask);
+                changed = true;
+            }
+        }
+        if (changed) {
+            entries.increment(); // a key whose bits were all set already doesn't fill the filter further
+        }
+    }
+
+    public boolean mightContain(long seed, CharSequence key) {
+        long h1 = hash(seed, key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long entries() {
+        return entries.sum();
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public long memoryBytes() {
+        return words.length() * 8L;
+    }
+
+    // (1 - e^(-k n / m))^k for the keys put so far, grows past the sized fpp once entries exceed capacity
+    public double expectedFpp() {
+        return Math.pow(1 - Math.exp(-hashes * (double) entries() / bits), hashes);
+    }
+
+    // FNV-1a over the UTF-16 chars, then the murmur3 finalizer to spread the bits
+    private static long hash(long seed, CharSequence key) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,164 @@
+package com.bank.springbootbank.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.Money;
+import com.bank.springbootbank.model.Transaction;
+import com.bank.springbootbank.model.TransactionType;
+import com.bank.springbootbank.repository.AccountRepository;
+import com.bank.springbootbank.repository.TransactionRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Posts large files of deposits and withdrawals (ACH / settlement runs).
+ * Postings are grouped into chunks, each chunk commits in its own database transaction
+ * and its transaction and ledger rows go out as JDBC batches (see hibernate.jdbc.batch_size).
+ * A failing chunk is rolled back and reported, the remaining chunks still post.
+ */
+@Service
+public class BulkPostingService {
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerService ledgerService;
+    private final EntityManager entityManager;
+    private final AccountCache accountCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultChunkSize;
+
+    public record Posting(String accountNumber, TransactionType transactionType, BigDecimal amount, String description) {
+    }
+
+    public record ChunkResult(int chunkNumber, long firstPosting, int postings, boolean committed, String failure) {
+    }
+
+    public record Report(long postingsSubmitted, long postingsCommitted, List<ChunkResult> chunks, Duration elapsed) {
+        public List<ChunkResult> failedChunks() {
+            return chunks.stream().filter(chunk -> !chunk.committed()).toList();
+        }
+
+        public double rowsPerSecond() {
+            double seconds = elapsed.toNanos() / 1_000_000_000.0;
+            return seconds > 0 ? postingsCommitted / seconds : 0;
+        }
+    }
+
+    @Autowired
+    public BulkPostingService(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                              LedgerService ledgerService, EntityManager entityManager, AccountCache accountCache,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${bank.bulk.chunk-size:1000}") int defaultChunkSize) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerService = ledgerService;
+        this.entityManager = entityManager;
+        this.accountCache = accountCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    public Report post(Stream<Posting> postings) {
+        return post(postings, defaultChunkSize);
+    }
+
+    public Report post(Stream<Posting> postings, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        long started = System.nanoTime();
+        List<ChunkResult> results = new ArrayList<>();
+        long submitted = 0;
+        long committed = 0;
+
+        Iterator<Posting> iterator = postings.iterator();
+        List<Posting> chunk = new ArrayList<>(chunkSize);
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                ChunkResult result = postChunk(results.size() + 1, submitted, chunk);
+                results.add(result);
+                submitted += chunk.size();
+                if (result.committed()) {
+                    committed += chunk.size();
+                }
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        return new Report(submitted, committed, results, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private ChunkResult postChunk(int chunkNumber, long firstPosting, List<Posting> chunk) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyChunk(chunk));
+            return new ChunkResult(chunkNumber, firstPosting, chunk.size(), true, null);
+        } catch (RuntimeException e) {
+            return new ChunkResult(chunkNumber, firstPosting, chunk.size(), false, e.getMessage());
+        }
+    }
+
+    private void applyChunk(List<Posting> chunk) {
+        // One locking read for every account in the chunk, in account-number order like transfers
+        TreeSet<String> accountNumbers = chunk.stream()
+                .map(Posting::accountNumber)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<String, Account> accounts = accountRepository.findAllByAccountNumberInForUpdate(accountNumbers).stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+
+        for (Posting posting : chunk) {
+            Account account = accounts.get(posting.accountNumber());
+            if (account == null) {
+                throw new RuntimeException("Account not found: " + posting.accountNumber());
+            }
+            if (posting.amount() == null || posting.amount().signum() <= 0) {
+                throw new RuntimeException("Amount must be greater than zero for account " + posting.accountNumber());
+            }
+            Money amount = Money.of(posting.amount());
+            switch (posting.transactionType()) {
+                case DEPOSIT -> account.setBalance(account.getBalance().plus(amount));
+                case WITHDRAWAL -> {
+                    if (account.getBalance().isLessThan(amount)) {
+                        throw new RuntimeException("Insufficient funds in account " + posting.accountNumber());
+                    }
+                    account.setBalance(account.getBalance().minus(amount));
+                }
+                default -> throw new RuntimeException("Unsupported posting type: " + posting.transactionType());
+            }
+
+            Transaction transaction = new Transaction();
+            transaction.setAccount(account);
+            transaction.setAmount(amount);
+            transaction.setTransactionType(posting.transactionType());
+            transaction.setDescription(posting.description());
+            transactionRepository.save(transaction);
+            if (posting.transactionType() == TransactionType.DEPOSIT) {
+                ledgerService.post(transaction, null, account);
+            } else {
+                ledgerService.post(transaction, account, null);
+            }
+        }
+
+        for (Account account : accounts.values()) {
+            accountCache.evictAfterCommit(account.getAccountNumber(), account.getUser().getId());
+        }
+
+        // Send the batched inserts/updates now and drop the chunk from the persistence context
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,385 @@
+package com.bank.springbootbank.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.Money;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.repository.AccountRepository;
+import com.bank.springbootbank.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Imports customers (users and their empty accounts) from a CSV file, e.g. a portfolio migrated
+ * from another system. Opening balances are posted afterwards through BulkPostingService.
+ *
+ * Lines are read in chunks. A bounded pool parses, validates and hashes the passwords of the next
+ * chunks while the coordinator writes the current one. Writing a chunk means one IN lookup for the
+ * usernames and one for the emails the RegisteredUserFilter can't rule out (usually none), then its
+ * users and accounts go out as JDBC batches in one database transaction. Chunks commit in file order,
+ * so a line repeating an earlier chunk is caught by the lookup like any other existing user.
+ *
+ * Every rejected line is reported with its number and reason, the other lines still import.
+ * A chunk that fails to commit (e.g. a user registered concurrently) rejects all of its lines.
+ *
+ * Header: username,password,full_name,address,phone_number,email,accounts
+ * accounts lists CHECKING and/or SAVINGS separated by ';' and may be empty. A password that is
+ * already a bcrypt hash (exported by the old system) is stored as it is, anything else is hashed.
+ * Hashing then sets the pace: at cost 10 one hash takes on the order of 100 ms of CPU, so a file of
+ * plain passwords imports at about bank.import.threads * 10 customers a second (given that many free
+ * cores), hours for a million customers. Pre-hashed files are bound by the inserts instead.
+ */
+@Service
+public class CustomerImportService {
+    private static final Logger log = LoggerFactory.getLogger(CustomerImportService.class);
+    private static final List<String> COLUMNS =
+            List.of("username", "password", "full_name", "address", "phone_number", "email", "accounts");
+    private static final int MAX_LENGTH = 255;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final PasswordHasher passwordHasher;
+    private final RegisteredUserFilter registeredUsers;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultChunkSize;
+    private final int threads;
+
+    public record Rejected(long lineNumber, String username, String reason) {
+    }
+
+    public record ImportReport(long lines, long usersImported, long accountsOpened, List<Rejected> rejected,
+                               int chunks, Duration elapsed) {
+        public double usersPerSecond() {
+            double seconds = elapsed.toNanos() / 1_000_000_000.0;
+            return seconds > 0 ? usersImported / seconds : 0;
+        }
+    }
+
+    private record Candidate(long lineNumber, String username, String password, String fullName, String address,
+                             String phoneNumber, String email, List<String> accountTypes) {
+    }
+
+    private record ParsedChunk(List<Candidate> candidates, List<Rejected> rejected) {
+    }
+
+    private record ChunkOutcome(int users, int accounts) {
+    }
+
+    @Autowired
+    public CustomerImportService(UserRepository userRepository, AccountRepository accountRepository,
+                                 AccountNumberGenerator accountNumberGenerator, PasswordHasher passwordHasher,
+                                 RegisteredUserFilter registeredUsers,
+                                 EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                 @Value("${bank.import.chunk-size:1000}") int defaultChunkSize,
+                                 @Value("${bank.import.threads:4}") int threads) {
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.accountNumberGenerator = accountNumberGenerator;
+        this.passwordHasher = passwordHasher;
+        this.registeredUsers = registeredUsers;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultChunkSize = defaultChunkSize;
+        this.threads = threads;
+    }
+
+    public ImportReport importCustomers(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importCustomers(reader, defaultChunkSize);
+        }
+    }
+
+    public ImportReport importCustomers(BufferedReader reader, int chunkSize) throws IOException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        String header = reader.readLine();
+        if (header == null || !parseCsvLine(header.strip().toLowerCase(Locale.ROOT)).equals(COLUMNS)) {
+            throw new RuntimeException("Import file must start with the header " + String.join(",", COLUMNS));
+        }
+        long started = System.nanoTime();
+        long lastProgress = started;
+        List<Rejected> rejected = new ArrayList<>();
+        long lineNumber = 1;
+        long users = 0;
+        long accounts = 0;
+        int chunks = 0;
+
+        // Bounded queue plus caller-runs: parsing never gets more than a few chunks ahead of the inserts
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        Deque<Future<ParsedChunk>> pending = new ArrayDeque<>();
+        try {
+            boolean more = true;
+            while (more) {
+                long firstLine = lineNumber + 1;
+                List<String> lines = new ArrayList<>(chunkSize);
+                String line;
+                while (lines.size() < chunkSize && (line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+                lineNumber += lines.size();
+                more = lines.size() == chunkSize;
+                if (!lines.isEmpty()) {
+                    pending.add(executor.submit(() -> parseChunk(firstLine, lines)));
+                }
+                // Keep every worker busy, write the oldest chunk once the next ones are queued behind it
+                while (!pending.isEmpty() && (pending.size() > threads || !more)) {
+                    ParsedChunk chunk = await(pending.poll());
+                    rejected.addAll(chunk.rejected());
+                    ChunkOutcome outcome = writeChunk(chunk.candidates(), rejected);
+                    users += outcome.users();
+                    accounts += outcome.accounts();
+                    chunks++;
+                }
+                if (System.nanoTime() - lastProgress > PROGRESS_INTERVAL_NANOS) {
+                    lastProgress = System.nanoTime();
+                    log.info("Customer import: {} lines read, {} users imported, {} rejected",
+                            lineNumber - 1, users, rejected.size());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        rejected.sort((a, b) -> Long.compare(a.lineNumber(), b.lineNumber()));
+        return new ImportReport(lineNumber - 1, users, accounts, rejected, chunks,
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Import chunk could not be parsed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Customer import interrupted");
+        }
+    }
+
+    private ParsedChunk parseChunk(long firstLine, List<String> lines) {
+        List<Candidate> candidates = new ArrayList<>(lines.size());
+        List<Rejected> rejected = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            long lineNumber = firstLine + i;
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> columns;
+            try {
+                columns = parseCsvLine(line);
+            } catch (IllegalArgumentException e) {
+                rejected.add(new Rejected(lineNumber, null, e.getMessage()));
+                continue;
+            }
+            String username = columns.get(0).strip();
+            String problem = validate(columns);
+            if (problem != null) {
+                rejected.add(new Rejected(lineNumber, username, problem));
+                continue;
+            }
+            List<String> accountTypes = new ArrayList<>(2);
+            for (String type : columns.get(6).split(";")) {
+                if (!type.isBlank()) {
+                    accountTypes.add(type.strip().toUpperCase(Locale.ROOT));
+                }
+            }
+            String password = columns.get(1);
+            candidates.add(new Candidate(lineNumber, username,
+                    PasswordHasher.isHash(password) ? password : passwordHasher.hashOnCallingThread(password),
+                    columns.get(2).strip(), columns.get(3).strip(), columns.get(4).strip(), columns.get(5).strip(),
+                    accountTypes));
+        }
+        return new ParsedChunk(candidates, rejected);
+    }
+
+    // Null when the line is fine, otherwise the reason it is rejected
+    private static String validate(List<String> columns) {
+        if (columns.size() != COLUMNS.size()) {
+            return "Expected " + COLUMNS.size() + " columns, found " + columns.size();
+        }
+        for (int i = 0; i < 6; i++) {
+            String value = i == 1 ? columns.get(i) : columns.get(i).strip();
+            if (value.isEmpty()) {
+                return COLUMNS.get(i) + " is required";
+            }
+            if (value.length() > MAX_LENGTH) {
+                return COLUMNS.get(i) + " is longer than " + MAX_LENGTH + " characters";
+            }
+        }
+        if (columns.get(5).strip().indexOf('@') < 1) {
+            return "email is not valid";
+        }
+        Set<String> types = new HashSet<>();
+        for (String type : columns.get(6).split(";")) {
+            String normalized = type.strip().toUpperCase(Locale.ROOT);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            if (!normalized.equals("CHECKING") && !normalized.equals("SAVINGS")) {
+                return "Unknown account type: " + type.strip();
+            }
+            if (!types.add(normalized)) {
+                return "Account type listed twice: " + normalized;
+            }
+        }
+        return null;
+    }
+
+    private ChunkOutcome writeChunk(List<Candidate> candidates, List<Rejected> rejected) {
+        // Duplicates inside the chunk: the first line wins
+        Map<String, Long> usernames = new HashMap<>();
+        Map<String, Long> emails = new HashMap<>();
+        List<Candidate> unique = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            Long earlierUsername = usernames.get(candidate.username());
+            Long earlierEmail = emails.get(candidate.email());
+            if (earlierUsername != null) {
+                rejected.add(new Rejected(candidate.lineNumber(), candidate.username(),
+                        "Username already used on line " + earlierUsername));
+            } else if (earlierEmail != null) {
+                rejected.add(new Rejected(candidate.lineNumber(), candidate.username(),
+                        "Email already used on line " + earlierEmail));
+            } else {
+                usernames.put(candidate.username(), candidate.lineNumber());
+                emails.put(candidate.email(), candidate.lineNumber());
+                unique.add(candidate);
+            }
+        }
+        if (unique.isEmpty()) {
+            return new ChunkOutcome(0, 0);
+        }
+
+        // Everything committed before, by earlier chunks or anyone else, in at most two round trips
+        List<String> maybeUsernames = usernames.keySet().stream().filter(registeredUsers::mightContainUsername).toList();
+        List<String> maybeEmails = emails.keySet().stream().filter(registeredUsers::mightContainEmail).toList();
+        Set<String> existingUsernames = maybeUsernames.isEmpty()
+                ? Set.of() : new HashSet<>(userRepository.findExistingUsernames(maybeUsernames));
+        Set<String> existingEmails = maybeEmails.isEmpty()
+                ? Set.of() : new HashSet<>(userRepository.findExistingEmails(maybeEmails));
+        registeredUsers.recordFalsePositives(maybeUsernames.size() - existingUsernames.size()
+                + maybeEmails.size() - existingEmails.size());
+        List<Candidate> accepted = new ArrayList<>(unique.size());
+        for (Candidate candidate : unique) {
+            if (existingUsernames.contains(candidate.username())) {
+                rejected.add(new Rejected(candidate.lineNumber(), candidate.username(), "Username already exists"));
+            } else if (existingEmails.contains(candidate.email())) {
+                rejected.add(new Rejected(candidate.lineNumber(), candidate.username(), "Email already registered"));
+            } else {
+                accepted.add(candidate);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return new ChunkOutcome(0, 0);
+        }
+
+        try {
+            int accounts = transactionTemplate.execute(status -> insert(accepted));
+            return new ChunkOutcome(accepted.size(), accounts);
+        } catch (RuntimeException e) {
+            log.warn("Customer import chunk starting at line {} failed: {}", accepted.get(0).lineNumber(), e.getMessage());
+            for (Candidate candidate : accepted) {
+                rejected.add(new Rejected(candidate.lineNumber(), candidate.username(),
+                        "Not imported, its chunk failed: " + e.getMessage()));
+            }
+            return new ChunkOutcome(0, 0);
+        }
+    }
+
+    private int insert(List<Candidate> accepted) {
+        int accounts = 0;
+        for (Candidate candidate : accepted) {
+            User user = new User();
+            user.setUsername(candidate.username());
+            user.setPassword(candidate.password());
+            user.setFullName(candidate.fullName());
+            user.setAddress(candidate.address());
+            user.setPhoneNumber(candidate.phoneNumber());
+            user.setEmail(candidate.email());
+            user.setAdmin(false);
+            registeredUsers.added(user.getUsername(), user.getEmail());
+            userRepository.save(user);
+
+            for (String accountType : candidate.accountTypes()) {
+                Account account = new Account();
+                account.setUser(user);
+                account.setAccountHolderName(user.getFullName());
+                account.setAccountType(accountType);
+                account.setBalance(Money.ZERO);
+                account.setAccountNumber(accountNumberGenerator.nextAccountNumber());
+                accountRepository.save(account);
+                accounts++;
+            }
+        }
+        // Send the batched inserts now and drop the chunk from the persistence context
+        entityManager.flush();
+        entityManager.clear();
+        return accounts;
+    }
+
+    /**
+     * Splits one CSV line into its fields. Fields may be quoted, "" inside quotes is a literal quote.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS.size());
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,156 @@
+package com.bank.springbootbank.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.springbootbank.model.IdempotencyKey;
+import com.bank.springbootbank.model.Transaction;
+import com.bank.springbootbank.repository.IdempotencyKeyRepository;
+import com.bank.springbootbank.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Runs money movements at most once per client-supplied key.
+ *
+ * The key row is inserted before the posting, in the same database transaction, so a second
+ * request with the same key blocks on the primary key until the first one commits or rolls back.
+ * After a commit the second request gets the stored transaction back, after a rollback it runs
+ * normally. A failed request therefore never burns its key. A request that loses the claim only
+ * ever replays the stored result or fails, it never runs the operation a second time.
+ *
+ * Keys seen by this node are also kept in memory, so a replay usually costs no database call.
+ * Stored keys expire after bank.idempotency.ttl and are purged in the background.
+ */
+@Service
+public class IdempotencyService implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Cache<String, Replay> recent;
+
+    // Cached transactions are detached snapshots, like the cached accounts
+    private record Replay(String requestFingerprint, Transaction transaction) {
+    }
+
+    @Autowired
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              TransactionRepository transactionRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${bank.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${bank.idempotency.cache-size:100000}") long cacheSize) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Runs the operation in a new database transaction, or returns the transaction an earlier
+     * request with the same key produced. Without a key the operation simply runs.
+     *
+     * @param requestFingerprint describes the request, a key reused for a different request is rejected
+     */
+    public Transaction execute(String idempotencyKey, String requestFingerprint, Supplier<Transaction> operation) {
+        if (idempotencyKey == null) {
+            return transactionTemplate.execute(status -> operation.get());
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Replay cached = recent.getIfPresent(idempotencyKey);
+        if (cached != null) {
+            return replay(cached, requestFingerprint);
+        }
+        try {
+            return transactionTemplate.execute(status -> claimAndRun(idempotencyKey, requestFingerprint, operation));
+        } catch (DataIntegrityViolationException e) {
+            // The key is taken, normally by a request that has committed since our insert waited for it.
+            // No stored row means the violation came from somewhere else (or the key was purged in between),
+            // the operation may have run already, so it fails rather than claiming again.
+            IdempotencyKey stored = idempotencyKeyRepository.findById(idempotencyKey).orElseThrow(() -> e);
+            return replay(remember(idempotencyKey, stored.getRequestFingerprint(),
+                    loadTransaction(stored.getTransactionId())), requestFingerprint);
+        }
+    }
+
+    private Transaction claimAndRun(String idempotencyKey, String requestFingerprint, Supplier<Transaction> operation) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyKey claim = new IdempotencyKey();
+        claim.setKey(idempotencyKey);
+        claim.setRequestFingerprint(requestFingerprint);
+        claim.setCreatedAt(now);
+        claim.setExpiresAt(now.plus(ttl));
+        idempotencyKeyRepository.saveAndFlush(claim);
+
+        Transaction transaction = operation.get();
+        idempotencyKeyRepository.recordTransaction(idempotencyKey, transaction.getId());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(idempotencyKey, requestFingerprint, transaction);
+            }
+        });
+        return transaction;
+    }
+
+    private Replay remember(String idempotencyKey, String requestFingerprint, Transaction transaction) {
+        Replay replay = new Replay(requestFingerprint, transaction);
+        recent.put(idempotencyKey, replay);
+        return replay;
+    }
+
+    private Transaction loadTransaction(Long transactionId) {
+        return transactionRepository.findWithAccountById(transactionId)
+                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+    }
+
+    private static Transaction replay(Replay replay, String requestFingerprint) {
+        if (!replay.requestFingerprint().equals(requestFingerprint)) {
+            throw new RuntimeException("Idempotency key was already used for a different request");
+        }
+        return replay.transaction();
+    }
+
+    // A hit is a replay served without a database call
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, recent, "idempotency.keys");
+    }
+
+    @Scheduled(fixedDelayString = "${bank.idempotency.purge-interval:PT10M}")
+    public void purgeExpiredKeys() {
+        int purged = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
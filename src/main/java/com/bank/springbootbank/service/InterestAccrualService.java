@@ -0,0 +1,199 @@
+package com.bank.springbootbank.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.Money;
+import com.bank.springbootbank.model.Transaction;
+import com.bank.springbootbank.model.TransactionType;
+import com.bank.springbootbank.repository.AccountRepository;
+import com.bank.springbootbank.repository.TransactionRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Accrues interest on savings accounts.
+ * A coordinator walks SAVINGS account ids in keyset order and hands each chunk to a bounded pool.
+ * Every chunk locks its accounts, credits balance * apy * days / 365 in whole cents, posts an INTEREST
+ * transaction and moves lastInterestCalculation to the run's cutoff, all in one database transaction
+ * with batched updates and inserts. The fraction of a cent left over is kept in interestRemainder and
+ * added to the next run, so small balances still earn. Accounts that were never tiered (funded by a
+ * transfer, a bulk posting or an import rather than a first deposit) get their APY from the rate engine.
+ *
+ * lastInterestCalculation is the watermark: a chunk that committed is never paid twice, and a run
+ * that died halfway is finished by simply running it again.
+ */
+@Service
+public class InterestAccrualService {
+    private static final Logger log = LoggerFactory.getLogger(InterestAccrualService.class);
+    private static final BigDecimal DAYS_PER_YEAR = BigDecimal.valueOf(365);
+    private static final int REMAINDER_SCALE = 10; // accounts.interest_remainder
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerService ledgerService;
+    private final ApyRateEngine rateEngine;
+    private final AccountCache accountCache;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int threads;
+
+    public record AccrualReport(LocalDate asOf, long accountsScanned, long accountsCredited, BigDecimal totalInterest,
+                                int chunks, int failedChunks, Duration elapsed) {
+    }
+
+    private record ChunkOutcome(int credited, BigDecimal interest) {
+    }
+
+    @Autowired
+    public InterestAccrualService(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                                  LedgerService ledgerService, ApyRateEngine rateEngine, AccountCache accountCache,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${bank.interest.chunk-size:500}") int chunkSize,
+                                  @Value("${bank.interest.threads:4}") int threads) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerService = ledgerService;
+        this.rateEngine = rateEngine;
+        this.accountCache = accountCache;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+    }
+
+    @Scheduled(cron = "${bank.interest.cron:0 0 2 * * *}")
+    public void accrueDailyInterest() {
+        AccrualReport report = accrueInterest(LocalDate.now());
+        log.info("Interest run for {}: {} accounts scanned, {} credited, {} paid, {} of {} chunks failed in {}",
+                report.asOf(), report.accountsScanned(), report.accountsCredited(), report.totalInterest(),
+                report.failedChunks(), report.chunks(), report.elapsed());
+    }
+
+    /**
+     * Accrues interest for every whole day before asOf that hasn't been paid yet.
+     */
+    public AccrualReport accrueInterest(LocalDate asOf) {
+        long started = System.nanoTime();
+        LocalDateTime cutoff = asOf.atStartOfDay();
+
+        // Bounded queue plus caller-runs: the scan can never get more than a few chunks ahead of the workers
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        List<Future<ChunkOutcome>> futures = new ArrayList<>();
+        long scanned = 0;
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Long> ids = accountRepository.findSavingsIdsDueForInterest(afterId, cutoff, Limit.of(chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                scanned += ids.size();
+                afterId = ids.get(ids.size() - 1);
+                futures.add(executor.submit(() -> accrueChunk(ids, asOf)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long credited = 0;
+        int failed = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        for (Future<ChunkOutcome> future : futures) {
+            try {
+                ChunkOutcome outcome = future.get();
+                credited += outcome.credited();
+                total = total.add(outcome.interest());
+            } catch (ExecutionException e) {
+                failed++; // rolled back, its accounts are picked up by the next run
+                log.warn("Interest chunk failed: {}", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interest run interrupted");
+            }
+        }
+        return new AccrualReport(asOf, scanned, credited, total, futures.size(), failed,
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private ChunkOutcome accrueChunk(List<Long> ids, LocalDate asOf) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime cutoff = asOf.atStartOfDay();
+            int credited = 0;
+            BigDecimal paid = BigDecimal.ZERO;
+
+            // Same lock order as transfers and bulk postings (account number), so no deadlocks with them
+            for (Account account : accountRepository.findAllByIdInForUpdate(ids)) {
+                LocalDateTime last = account.getLastInterestCalculation() != null
+                        ? account.getLastInterestCalculation() : account.getCreatedAt();
+                if (!last.isBefore(cutoff)) {
+                    continue; // another run got here first
+                }
+                long days = ChronoUnit.DAYS.between(last.toLocalDate(), asOf);
+                BigDecimal apy = account.getApy();
+                if (apy.signum() == 0) {
+                    apy = rateEngine.apyFor(account.getAccountType(), account.getBalance(), asOf);
+                    account.setApy(apy);
+                }
+                BigDecimal earned = interestFor(account.getBalance().toBigDecimal(), apy, days)
+                        .add(account.getInterestRemainder());
+                BigDecimal interest = earned.setScale(2, RoundingMode.DOWN);
+                account.setInterestRemainder(earned.subtract(interest));
+                account.setLastInterestCalculation(cutoff);
+
+                if (interest.signum() > 0) {
+                    Money credit = Money.of(interest);
+                    account.setBalance(account.getBalance().plus(credit));
+                    Transaction transaction = new Transaction();
+                    transaction.setAccount(account);
+                    transaction.setAmount(credit);
+                    transaction.setTransactionType(TransactionType.INTEREST);
+                    transaction.setDescription("Interest for " + days + " days");
+                    transactionRepository.save(transaction);
+                    ledgerService.post(transaction, null, account);
+                    accountCache.evictAfterCommit(account.getAccountNumber(), account.getUser().getId());
+                    credited++;
+                    paid = paid.add(interest);
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return new ChunkOutcome(credited, paid);
+        });
+    }
+
+    // Simple daily interest to the scale of interestRemainder, paying it out in cents is up to the caller
+    static BigDecimal interestFor(BigDecimal balance, BigDecimal apy, long days) {
+        if (days <= 0 || balance.signum() <= 0 || apy == null || apy.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return balance.multiply(apy)
+                .multiply(BigDecimal.valueOf(days))
+                .divide(DAYS_PER_YEAR, REMAINDER_SCALE, RoundingMode.HALF_EVEN);
+    }
+}
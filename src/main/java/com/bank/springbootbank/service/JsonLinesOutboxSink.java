@@ -0,0 +1,67 @@
+package com.bank.springbootbank.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bank.springbootbank.model.OutboxEvent;
+import com.bank.springbootbank.model.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Default sink, appends each event as one JSON line to bank.outbox.file.
+ * A batch is written with a single append and forced to disk before publish returns.
+ */
+@Component
+public class JsonLinesOutboxSink implements OutboxSink {
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    private record EventLine(Long eventId, Long transactionId, TransactionType transactionType, String accountNumber,
+                             String counterpartyAccountNumber, BigDecimal amount, String description,
+                             LocalDateTime occurredAt) {
+    }
+
+    @Autowired
+    public JsonLinesOutboxSink(ObjectMapper objectMapper,
+                               @Value("${bank.outbox.file:outbox/transaction-events.jsonl}") Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder(events.size() * 256);
+        for (OutboxEvent event : events) {
+            lines.append(objectMapper.writeValueAsString(new EventLine(event.getId(), event.getTransactionId(),
+                    event.getTransactionType(), event.getAccountNumber(), event.getCounterpartyAccountNumber(),
+                    event.getAmount(), event.getDescription(), event.getOccurredAt()))).append('\n');
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
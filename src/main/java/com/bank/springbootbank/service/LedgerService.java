@@ -0,0 +1,108 @@
+package com.bank.springbootbank.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.BalanceSnapshot;
+import com.bank.springbootbank.model.LedgerEntry;
+import com.bank.springbootbank.model.Money;
+import com.bank.springbootbank.model.OutboxEvent;
+import com.bank.springbootbank.model.Transaction;
+import com.bank.springbootbank.repository.AccountRepository;
+import com.bank.springbootbank.repository.BalanceSnapshotRepository;
+import com.bank.springbootbank.repository.LedgerEntryRepository;
+import com.bank.springbootbank.repository.OutboxEventRepository;
+
+/**
+ * Writes the ledger lines and the outbox event of posted transactions and rebuilds balances from them.
+ * Account.balance stays the fast running total, the ledger is the record it can be checked against.
+ */
+@Service
+public class LedgerService {
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+
+    @Autowired
+    public LedgerService(LedgerEntryRepository ledgerEntryRepository,
+                         BalanceSnapshotRepository balanceSnapshotRepository,
+                         OutboxEventRepository outboxEventRepository, AccountRepository accountRepository,
+                         AccountCache accountCache) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+    }
+
+    /**
+     * Posts the two balanced lines of a saved transaction: -amount on from, +amount on to.
+     * Pass null for the side outside the bank, e.g. from is null for a deposit, to for a withdrawal.
+     * Also queues the transaction's event for the OutboxRelay.
+     * Must run in the transaction that saved it, the inserts go out with its other JDBC batches.
+     */
+    public void post(Transaction transaction, Account from, Account to) {
+        String fromDescription = transaction.getDescription();
+        String toDescription = transaction.getDescription();
+        if (fromDescription == null && from != null && to != null) {
+            // Each side of a transfer names the other account in its own history
+            fromDescription = "Transfer to " + to.getAccountNumber();
+            toDescription = "Transfer from " + from.getAccountNumber();
+        }
+        BigDecimal amount = transaction.getAmount().toBigDecimal();
+        ledgerEntryRepository.save(new LedgerEntry(transaction, from, amount.negate(), fromDescription));
+        ledgerEntryRepository.save(new LedgerEntry(transaction, to, amount, toDescription));
+
+        Account counterparty = null;
+        if (from != null && to != null) {
+            counterparty = from.getAccountNumber().equals(transaction.getAccount().getAccountNumber()) ? to : from;
+        }
+        outboxEventRepository.save(new OutboxEvent(transaction, counterparty));
+    }
+
+    // Balance as the sum of the account's ledger lines
+    @Transactional(readOnly = true)
+    public BigDecimal ledgerBalance(Long accountId) {
+        return ledgerEntryRepository.sumByAccountId(accountId);
+    }
+
+    /**
+     * Balance as it stood at the given time: the latest snapshot at or before it plus the lines
+     * posted after the snapshot, so only the tail since the last snapshot run is summed.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAt(Long accountId, LocalDateTime at) {
+        Optional<BalanceSnapshot> snapshot =
+                balanceSnapshotRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(accountId, at);
+        if (snapshot.isEmpty()) {
+            return ledgerEntryRepository.sumByAccountIdUpTo(accountId, at);
+        }
+        return snapshot.get().getBalance()
+                .add(ledgerEntryRepository.sumByAccountIdBetween(accountId, snapshot.get().getAsOf(), at));
+    }
+
+    /**
+     * Recomputes the balance from the ledger and stores it if the running total drifted.
+     * The account row stays locked meanwhile so no posting can slip in between.
+     * Returns the rebuilt balance.
+     */
+    @Transactional
+    public BigDecimal rebuildBalance(String accountNumber) {
+        Account account = accountRepository.findByAccountNumberForUpdate(accountNumber)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        BigDecimal rebuilt = ledgerEntryRepository.sumByAccountId(account.getId());
+        if (account.getBalance().compareTo(Money.of(rebuilt)) != 0) {
+            account.setBalance(Money.of(rebuilt));
+            accountCache.evictAfterCommit(accountNumber, account.getUser().getId());
+        }
+        return rebuilt;
+    }
+}
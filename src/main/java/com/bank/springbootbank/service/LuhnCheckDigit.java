@@ -0,0 +1,49 @@
+package com.bank.springbootbank.service;
+
+/**
+ * Luhn (mod 10) check digit, catches every single-digit typo and most swapped neighbours.
+ */
+public final class LuhnCheckDigit {
+
+    private LuhnCheckDigit() {
+    }
+
+    public static int compute(long body) {
+        int sum = 0;
+        boolean doubleIt = true; // the rightmost body digit sits next to the check digit
+        while (body > 0) {
+            int digit = (int) (body % 10);
+            if (doubleIt) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleIt = !doubleIt;
+            body /= 10;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    public static boolean isValid(String digits) {
+        int sum = 0;
+        boolean doubleIt = false;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            int digit = c - '0';
+            if (doubleIt) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleIt = !doubleIt;
+        }
+        return sum % 10 == 0;
+    }
+}
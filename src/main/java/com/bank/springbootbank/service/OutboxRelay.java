@@ -0,0 +1,179 @@
+package com.bank.springbootbank.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.springbootbank.model.OutboxEvent;
+import com.bank.springbootbank.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Drains the transaction outbox into the OutboxSink in the background, postings only pay for the insert.
+ *
+ * Each batch is read oldest first and locked, published, and deleted in one database transaction.
+ * A batch is deleted only after the sink accepted it, so a crash or a failed commit sends it again
+ * (at-least-once). Batches go out one at a time in id order, which is commit order per account.
+ *
+ * Backpressure: the relay only pulls the next batch once the sink took the previous one, stops after
+ * bank.outbox.max-batches-per-run, and backs off exponentially while the sink is failing. Meanwhile
+ * events simply wait in the table.
+ */
+@Service
+public class OutboxRelay implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration maxBackoff;
+    private final boolean enabled;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private int consecutiveFailures; // only touched inside drain()
+    // Read by relayPending() outside the lock. Compared as a difference, so it starts at a real nanoTime,
+    // which may be negative
+    private volatile long retryAt = System.nanoTime();
+
+    public record RelayReport(int batches, long delivered, boolean failed, Duration elapsed) {
+        public double eventsPerSecond() {
+            double seconds = elapsed.toNanos() / 1_000_000_000.0;
+            return seconds > 0 ? delivered / seconds : 0;
+        }
+    }
+
+    // Since startup; eventsPerSecond is measured over the time spent relaying, not wall-clock time
+    public record RelayStats(long delivered, long failures, double eventsPerSecond) {
+    }
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxSink sink,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${bank.outbox.batch-size:500}") int batchSize,
+                       @Value("${bank.outbox.max-batches-per-run:20}") int maxBatchesPerRun,
+                       @Value("${bank.outbox.max-backoff:PT1M}") Duration maxBackoff,
+                       @Value("${bank.outbox.relay.enabled:true}") boolean enabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxBackoff = maxBackoff;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${bank.outbox.relay-interval:PT0.5S}")
+    public void relayPending() {
+        if (!enabled || System.nanoTime() - retryAt < 0) {
+            return;
+        }
+        RelayReport report = drain();
+        if (report.delivered() > 0) {
+            log.debug("Relayed {} outbox events in {} batches, {} events/s", report.delivered(), report.batches(),
+                    Math.round(report.eventsPerSecond()));
+        }
+    }
+
+    /**
+     * Publishes pending events until the outbox is empty, the run's batch limit is reached or the sink fails.
+     */
+    public synchronized RelayReport drain() {
+        long started = System.nanoTime();
+        int batches = 0;
+        long sent = 0;
+        boolean failed = false;
+        while (batches < maxBatchesPerRun) {
+            int batch;
+            try {
+                batch = transactionTemplate.execute(status -> relayBatch());
+            } catch (RuntimeException e) {
+                failed = true;
+                failures.incrementAndGet();
+                consecutiveFailures++;
+                Duration backoff = backoff(consecutiveFailures);
+                retryAt = System.nanoTime() + backoff.toNanos();
+                log.warn("Outbox relay failed, {} pending events stay queued, retrying in {}: {}",
+                        outboxEventRepository.count(), backoff, e.getMessage());
+                break;
+            }
+            if (batch == 0) {
+                break;
+            }
+            batches++;
+            sent += batch;
+            if (batch < batchSize) {
+                break;
+            }
+        }
+        if (!failed) {
+            consecutiveFailures = 0;
+        }
+        long elapsed = System.nanoTime() - started;
+        delivered.addAndGet(sent);
+        busyNanos.addAndGet(elapsed);
+        return new RelayReport(batches, sent, failed, Duration.ofNanos(elapsed));
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findOldestForUpdate(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            sink.publish(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        outboxEventRepository.deleteByIdIn(batch.stream().map(OutboxEvent::getId).toList());
+        return batch.size();
+    }
+
+    // 1s, 2s, 4s, ... up to bank.outbox.max-backoff
+    private Duration backoff(int attempt) {
+        Duration backoff = Duration.ofSeconds(1L << Math.min(attempt - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    // Throughput is rate(bank_outbox_delivered_total), the backlog gauge is one count query per scrape
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("bank.outbox.delivered", delivered, AtomicLong::get)
+                .description("Outbox events accepted by the sink")
+                .register(registry);
+        FunctionCounter.builder("bank.outbox.failures", failures, AtomicLong::get)
+                .description("Relay runs stopped by a failing sink")
+                .register(registry);
+        Gauge.builder("bank.outbox.pending", this, OutboxRelay::pendingEvents)
+                .description("Outbox events waiting for the relay")
+                .register(registry);
+    }
+
+    public RelayStats stats() {
+        double seconds = busyNanos.get() / 1_000_000_000.0;
+        return new RelayStats(delivered.get(), failures.get(), seconds > 0 ? delivered.get() / seconds : 0);
+    }
+
+    public long pendingEvents() {
+        return outboxEventRepository.count();
+    }
+}
@@ -0,0 +1,15 @@
+package com.bank.springbootbank.service;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.bank.springbootbank.model.OutboxEvent;
+
+/**
+ * Where the outbox relay delivers transaction events (message broker, webhook, file).
+ * publish must only return once the whole batch is durably accepted; throwing keeps the batch
+ * in the outbox for the next attempt. Events can arrive more than once, consumers dedupe on the event id.
+ */
+public interface OutboxSink {
+    void publish(List<OutboxEvent> events) throws IOException;
+}
@@ -0,0 +1,149 @@
+package com.bank.springbootbank.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Hashes and verifies passwords with bcrypt at bank.passwords.bcrypt-cost.
+ *
+ * A verification costs tens of milliseconds of pure CPU, so the work runs on its own pool of
+ * bank.passwords.threads platform threads (one per core by default) instead of the request threads.
+ * The queue in front of it is bounded: when logins arrive faster than the cores can hash them,
+ * new ones are rejected straight away rather than piling up behind requests that will time out.
+ *
+ * Rows written before hashing still hold the plaintext. They are recognised by not looking like
+ * a bcrypt hash, compared in constant time, and reported as needing a rehash so the caller can
+ * store the hash on the first successful login. Hashes at another cost are upgraded the same way.
+ */
+@Service
+public class PasswordHasher implements MeterBinder, AutoCloseable {
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\A\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    public enum Verification {
+        MISMATCH, MATCH, MATCH_NEEDS_REHASH;
+
+        public boolean matched() {
+            return this != MISMATCH;
+        }
+    }
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final AtomicLong rejected = new AtomicLong();
+    // Unknown usernames are checked against this so they take as long as a wrong password
+    private final String unknownUserHash;
+
+    @Autowired
+    public PasswordHasher(@Value("${bank.passwords.bcrypt-cost:10}") int cost,
+                          @Value("${bank.passwords.threads:0}") int threads,
+                          @Value("${bank.passwords.queue-size:256}") int queueSize,
+                          @Value("${bank.passwords.timeout:5s}") Duration timeout) {
+        this.encoder = new BCryptPasswordEncoder(cost);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+        this.unknownUserHash = encoder.encode("unknown-user");
+    }
+
+    public String hash(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    // For batch jobs that bring their own bounded threads, so they never take the pool away from logins
+    public String hashOnCallingThread(String rawPassword) {
+        return encoder.encode(rawPassword);
+    }
+
+    public Verification verify(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return Verification.MISMATCH;
+        }
+        if (!isHash(storedPassword)) {
+            // Legacy plaintext row, no pool needed for a comparison
+            boolean equal = MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+            return equal ? Verification.MATCH_NEEDS_REHASH : Verification.MISMATCH;
+        }
+        if (!run(() -> encoder.matches(rawPassword, storedPassword))) {
+            return Verification.MISMATCH;
+        }
+        return encoder.upgradeEncoding(storedPassword) ? Verification.MATCH_NEEDS_REHASH : Verification.MATCH;
+    }
+
+    // Burns the same work as a real verification, so response times don't reveal which usernames exist
+    public void verifyUnknownUser(String rawPassword) {
+        if (rawPassword != null) {
+            run(() -> encoder.matches(rawPassword, unknownUserHash));
+        }
+    }
+
+    public static boolean isHash(String storedPassword) {
+        return BCRYPT_HASH.matcher(storedPassword).matches();
+    }
+
+    private <T> T run(Callable<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(work);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("Too many logins in progress, please try again");
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new RuntimeException("Login timed out, please try again");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password check failed", e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Login interrupted");
+        }
+    }
+
+    // Queue depth, active threads and completed hashes come from executor_* with name="passwords"
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "passwords", Tags.empty()).bindTo(registry);
+        FunctionCounter.builder("bank.passwords.rejected", rejected, AtomicLong::get)
+                .description("Hash and verify requests turned away because the queue was full")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
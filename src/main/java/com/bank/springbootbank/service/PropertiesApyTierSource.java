@@ -0,0 +1,52 @@
+package com.bank.springbootbank.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.bank.springbootbank.model.Money;
+
+/**
+ * Tiers from bank.rates.tiers (bank.rates.source=config), comma-separated
+ * TYPE:MINIMUM_BALANCE:APY[:EFFECTIVE_FROM], e.g. SAVINGS:0:0.02,SAVINGS:1000:0.03:2026-01-01.
+ * Tiers without a date have always been in effect. Read from the Environment on every reload.
+ */
+@Component
+@ConditionalOnProperty(name = "bank.rates.source", havingValue = "config")
+public class PropertiesApyTierSource implements ApyTierSource {
+    private static final LocalDate ALWAYS = LocalDate.of(2000, 1, 1);
+
+    private final Environment environment;
+
+    @Autowired
+    public PropertiesApyTierSource(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public List<ApyTier> loadTiers() {
+        return parse(environment.getProperty("bank.rates.tiers", ""));
+    }
+
+    static List<ApyTier> parse(String tiers) {
+        List<ApyTier> parsed = new ArrayList<>();
+        for (String tier : tiers.split(",")) {
+            if (tier.isBlank()) {
+                continue;
+            }
+            String[] parts = tier.trim().split(":");
+            if (parts.length < 3 || parts.length > 4) {
+                throw new IllegalArgumentException("Invalid APY tier '" + tier.trim() + "'");
+            }
+            parsed.add(new ApyTier(parts[0], parts.length == 4 ? LocalDate.parse(parts[3]) : ALWAYS,
+                    Money.of(parts[1]), new BigDecimal(parts[2])));
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,119 @@
+package com.bank.springbootbank.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.springbootbank.dto.BalanceCheck;
+import com.bank.springbootbank.repository.AccountRepository;
+import com.bank.springbootbank.repository.BalanceSnapshotRepository;
+
+/**
+ * Verifies every account's running balance against its ledger.
+ * A coordinator walks account ids in keyset order and hands each chunk to a bounded pool; a chunk
+ * is one read-only statement comparing each balance with its latest snapshot plus the lines since.
+ * Nothing is changed, drifted accounts are reported and can be fixed with LedgerService.rebuildBalance.
+ */
+@Service
+public class ReconciliationService {
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+
+    private final AccountRepository accountRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int threads;
+
+    public record ReconciliationReport(long accountsChecked, List<BalanceCheck> drifts, int chunks, int failedChunks,
+                                       Duration elapsed) {
+        public boolean clean() {
+            return drifts.isEmpty() && failedChunks == 0;
+        }
+    }
+
+    @Autowired
+    public ReconciliationService(AccountRepository accountRepository,
+                                 BalanceSnapshotRepository balanceSnapshotRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${bank.reconciliation.chunk-size:1000}") int chunkSize,
+                                 @Value("${bank.reconciliation.threads:4}") int threads) {
+        this.accountRepository = accountRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+    }
+
+    @Scheduled(cron = "${bank.reconciliation.cron:0 30 3 * * *}")
+    public void reconcileNightly() {
+        ReconciliationReport report = reconcile();
+        for (BalanceCheck drift : report.drifts()) {
+            log.warn("Account {} drifted: balance {}, ledger {}, difference {}", drift.accountNumber(),
+                    drift.balance(), drift.ledgerBalance(), drift.difference());
+        }
+        log.info("Reconciliation: {} accounts checked, {} drifted, {} of {} chunks failed in {}",
+                report.accountsChecked(), report.drifts().size(), report.failedChunks(), report.chunks(),
+                report.elapsed());
+    }
+
+    public ReconciliationReport reconcile() {
+        long started = System.nanoTime();
+
+        // Bounded queue plus caller-runs: the scan can never get more than a few chunks ahead of the workers
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        List<Future<List<BalanceCheck>>> futures = new ArrayList<>();
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Long> ids = accountRepository.findIdsAfter(afterId, Limit.of(chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+                futures.add(executor.submit(() -> transactionTemplate.execute(status ->
+                        balanceSnapshotRepository.checkBalances(ids))));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long checked = 0;
+        int failed = 0;
+        List<BalanceCheck> drifts = new ArrayList<>();
+        for (Future<List<BalanceCheck>> future : futures) {
+            try {
+                for (BalanceCheck check : future.get()) {
+                    checked++;
+                    if (check.drifted()) {
+                        drifts.add(check);
+                    }
+                }
+            } catch (ExecutionException e) {
+                failed++;
+                log.warn("Reconciliation chunk failed: {}", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Reconciliation interrupted");
+            }
+        }
+        return new ReconciliationReport(checked, drifts, futures.size(), failed,
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+}
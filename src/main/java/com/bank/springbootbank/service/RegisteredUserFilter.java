@@ -0,0 +1,237 @@
+package com.bank.springbootbank.service;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.springbootbank.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * In-memory bloom filter of every registered username and email, so the existence checks at
+ * registration only reach the database when the name or email might be taken. Most registrations
+ * are unique and skip both queries.
+ *
+ * The filter is built by a streamed scan of users once the application is ready and answers
+ * "might exist" until then. New users are added as they are inserted. Users this node never saw
+ * (registered on another node, or in a rare race with a rebuild) are still rejected by the unique
+ * constraints on users, which stay the source of truth. Once more keys went in than the filter was
+ * sized for it is rebuilt twice as large in the background.
+ */
+@Component
+public class RegisteredUserFilter implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(RegisteredUserFilter.class);
+    private static final long USERNAME = 1;
+    private static final long EMAIL = 2;
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long expectedUsers;
+    private final double fpp;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Null until the first scan finished, lookups then fall through to the database
+    private volatile BloomFilter active;
+    // Set while a scan runs, so users added meanwhile make it into the new filter too
+    private volatile BloomFilter building;
+    private Counter negatives;
+    private Counter positives;
+    private Counter falsePositives;
+
+    @Autowired
+    public RegisteredUserFilter(UserRepository userRepository, DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${bank.user-filter.enabled:true}") boolean enabled,
+                                @Value("${bank.user-filter.expected-users:1000000}") long expectedUsers,
+                                @Value("${bank.user-filter.fpp:0.01}") double fpp,
+                                @Value("${bank.user-filter.fetch-size:1000}") int fetchSize) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // PostgreSQL only streams with a fetch size inside a transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedUsers = expectedUsers;
+        this.fpp = fpp;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            rebuildInBackground();
+        }
+    }
+
+    public boolean usernameExists(String username) {
+        if (!mightContainUsername(username)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByUsername(username);
+        if (!exists) {
+            recordFalsePositives(1);
+        }
+        return exists;
+    }
+
+    public boolean emailExists(String email) {
+        if (!mightContainEmail(email)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByEmail(email);
+        if (!exists) {
+            recordFalsePositives(1);
+        }
+        return exists;
+    }
+
+    public boolean mightContainUsername(String username) {
+        return mightContain(USERNAME, username);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return mightContain(EMAIL, email);
+    }
+
+    // For callers that checked "might exist" answers against the database themselves
+    public void recordFalsePositives(long count) {
+        if (falsePositives != null && count > 0) {
+            falsePositives.increment(count);
+        }
+    }
+
+    /**
+     * Adds a user being inserted. Call it before the commit: if the insert rolls back the filter
+     * only gained a false positive.
+     */
+    public void added(String username, String email) {
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(USERNAME, username);
+            next.put(EMAIL, email);
+        }
+        BloomFilter current = active;
+        if (current != null) {
+            current.put(USERNAME, username);
+            current.put(EMAIL, email);
+            if (current.entries() > current.capacity()) {
+                rebuildInBackground();
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return active != null;
+    }
+
+    /**
+     * Scans all users into a new filter sized for twice their number (at least expected-users)
+     * and swaps it in. Runs on the calling thread.
+     */
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        long users = userRepository.count();
+        BloomFilter next = BloomFilter.forCapacity(2 * Math.max(expectedUsers, 2 * users), fpp);
+        building = next;
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query("select username, email from users",
+                    rs -> {
+                        next.put(USERNAME, rs.getString(1));
+                        next.put(EMAIL, rs.getString(2));
+                    }));
+            active = next;
+        } finally {
+            building = null;
+        }
+        log.info("Registered user filter holds {} keys in {} KB (expected fpp {}), built in {} ms", next.entries(),
+                next.memoryBytes() / 1024, String.format("%.4f", next.expectedFpp()),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void rebuildInBackground() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("registered-user-filter").start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Registered user filter could not be built, checks go to the database: {}", e.getMessage());
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+    }
+
+    private boolean mightContain(long kind, String key) {
+        BloomFilter current = active;
+        if (current == null || key == null) {
+            return true;
+        }
+        boolean might = current.mightContain(kind, key);
+        Counter counter = might ? positives : negatives;
+        if (counter != null) {
+            counter.increment();
+        }
+        return might;
+    }
+
+    /**
+     * Turns a violation of uk_users_username or uk_users_email into the error the existence checks give.
+     * Any other integrity violation (a missing column, ...) is returned as it is.
+     */
+    public static RuntimeException duplicateUser(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains("uk_users_email")) {
+            return new RuntimeException("Email already registered");
+        }
+        if (message.contains("uk_users_username")) {
+            return new RuntimeException("Username already exists");
+        }
+        return e;
+    }
+
+    // Observed false-positive rate: false-positives / (false-positives + negatives)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        negatives = Counter.builder("bank.user-filter.checks")
+                .description("Username and email checks answered by the filter")
+                .tag("result", "negative")
+                .register(registry);
+        positives = Counter.builder("bank.user-filter.checks")
+                .description("Username and email checks answered by the filter")
+                .tag("result", "positive")
+                .register(registry);
+        falsePositives = Counter.builder("bank.user-filter.false-positives")
+                .description("Positive checks the database then found free")
+                .register(registry);
+        Gauge.builder("bank.user-filter.memory", this, filter -> filter.active == null ? 0 : filter.active.memoryBytes())
+                .description("Size of the filter's bit array")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("bank.user-filter.entries", this, filter -> filter.active == null ? 0 : filter.active.entries())
+                .description("Usernames and emails in the filter")
+                .register(registry);
+        Gauge.builder("bank.user-filter.expected-fpp", this, filter -> filter.active == null ? 1 : filter.active.expectedFpp())
+                .description("False-positive probability expected at the current fill")
+                .register(registry);
+    }
+}
@@ -0,0 +1,123 @@
+package com.bank.springbootbank.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Account numbers handed out from blocks reserved on the account_number_seq database sequence.
+ * One sequence call reserves a whole block, numbers inside the block come from memory with a
+ * single atomic increment, so nodes never talk to each other and never collide.
+ * The sequence value is the block's offset and its increment is the block size, so the
+ * ranges stay apart even if the block size is changed by a later migration.
+ *
+ * Format: 12 digits, an 11-digit body starting with 1 followed by a Luhn check digit.
+ * Numbers issued before this generator are 10 digits and carry no check digit.
+ */
+@Component
+public class SequenceBlockAccountNumberGenerator implements AccountNumberGenerator {
+    static final long BODY_BASE = 10_000_000_000L; // smallest 11-digit body
+    static final long BODY_LIMIT = 100_000_000_000L;
+    private static final int LENGTH = 12;
+    private static final int LEGACY_LENGTH = 10;
+
+    private final LongSupplier blockSource;
+    private final int blockSize;
+    private final boolean acceptLegacy;
+    private final AtomicReference<Block> current;
+
+    private static final class Block {
+        final long end;
+        final AtomicLong next;
+
+        Block(long start, long end) {
+            this.end = end;
+            this.next = new AtomicLong(start);
+        }
+    }
+
+    @Autowired
+    public SequenceBlockAccountNumberGenerator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                               @Value("${bank.account-number.accept-legacy:true}") boolean acceptLegacy) {
+        this(sequenceBlockSource(jdbcTemplate, entityManagerFactory), sequenceIncrement(jdbcTemplate), acceptLegacy);
+    }
+
+    /**
+     * @param blockSource returns the offset of a new block on every call, at least blockSize past
+     *                    every offset it returned before
+     */
+    public SequenceBlockAccountNumberGenerator(LongSupplier blockSource, int blockSize, boolean acceptLegacy) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.blockSource = blockSource;
+        this.blockSize = blockSize;
+        this.acceptLegacy = acceptLegacy;
+        this.current = new AtomicReference<>(new Block(0, 0)); // empty, the first call reserves a block
+    }
+
+    @Override
+    public String nextAccountNumber() {
+        while (true) {
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return format(value);
+            }
+            refill(block);
+        }
+    }
+
+    @Override
+    public boolean isValid(String accountNumber) {
+        if (accountNumber == null) {
+            return false;
+        }
+        if (accountNumber.length() == LENGTH) {
+            return accountNumber.charAt(0) != '0' && LuhnCheckDigit.isValid(accountNumber);
+        }
+        return acceptLegacy && accountNumber.length() == LEGACY_LENGTH && accountNumber.chars().allMatch(Character::isDigit);
+    }
+
+    // Only the thread that finds the block exhausted pays for the sequence call, once per block
+    private synchronized void refill(Block exhausted) {
+        if (current.get() != exhausted) {
+            return; // another thread already swapped in a fresh block
+        }
+        long offset = blockSource.getAsLong();
+        if (offset < 0 || offset > BODY_LIMIT - BODY_BASE - blockSize) {
+            throw new IllegalStateException("Account number range exhausted");
+        }
+        long start = BODY_BASE + offset;
+        current.set(new Block(start, start + blockSize));
+    }
+
+    private static String format(long body) {
+        return Long.toString(body * 10 + LuhnCheckDigit.compute(body));
+    }
+
+    private static LongSupplier sequenceBlockSource(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        String nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport()
+                .getSequenceNextValString("account_number_seq");
+        return () -> jdbcTemplate.queryForObject(nextValueSql, Long.class);
+    }
+
+    // The block size is whatever the sequence steps by, set in the migrations (V14)
+    private static int sequenceIncrement(JdbcTemplate jdbcTemplate) {
+        Long increment = jdbcTemplate.queryForObject("select increment from information_schema.sequences "
+                + "where lower(sequence_name) = 'account_number_seq'", Long.class);
+        if (increment == null) {
+            throw new IllegalStateException("account_number_seq not found");
+        }
+        return Math.toIntExact(increment);
+    }
+}
@@ -0,0 +1,56 @@
+package com.bank.springbootbank.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * The session_revocations table: logouts and deleted users, shared by every node.
+ * Writes join the caller's transaction, so a user's revocation commits or rolls back with the delete.
+ */
+@Service
+public class SessionRevocationStore {
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration maxLifetime;
+
+    // Exactly one of sessionId and userId is set
+    public record Revocation(String sessionId, Long userId) {
+    }
+
+    @Autowired
+    public SessionRevocationStore(JdbcTemplate jdbcTemplate,
+                                  @Value("${bank.sessions.max-lifetime:12h}") Duration maxLifetime) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxLifetime = maxLifetime;
+    }
+
+    public void revokeSession(String sessionId, Instant expiresAt) {
+        jdbcTemplate.update("insert into session_revocations (session_id, revoked_at, expires_at) values (?, ?, ?)",
+                sessionId, Timestamp.from(Instant.now()), Timestamp.from(expiresAt));
+    }
+
+    // Every token of the user was issued within the last max-lifetime, so none outlives the row
+    public void revokeUser(Long userId) {
+        Instant now = Instant.now();
+        jdbcTemplate.update("insert into session_revocations (user_id, revoked_at, expires_at) values (?, ?, ?)",
+                userId, Timestamp.from(now), Timestamp.from(now.plus(maxLifetime)));
+    }
+
+    // Revocations recorded at or after the given time that still cover a live token
+    public List<Revocation> revokedSince(Instant since) {
+        return jdbcTemplate.query(
+                "select session_id, user_id from session_revocations where revoked_at >= ? and expires_at > ?",
+                (rs, row) -> new Revocation(rs.getString(1), rs.getObject(2, Long.class)),
+                Timestamp.from(since), Timestamp.from(Instant.now()));
+    }
+
+    public int purgeExpired() {
+        return jdbcTemplate.update("delete from session_revocations where expires_at <= ?", Timestamp.from(Instant.now()));
+    }
+}
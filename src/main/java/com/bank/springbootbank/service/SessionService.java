@@ -0,0 +1,280 @@
+package com.bank.springbootbank.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.Admin;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.service.SessionRevocationStore.Revocation;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Logs customers and admins in and recognises them again from a bearer token.
+ *
+ * A token is the session id, role, principal id and expiry, signed with HMAC-SHA256 under
+ * bank.sessions.secret. Forged, tampered and expired tokens are turned away from the token alone.
+ * Valid ones are looked up in a bounded in-memory session cache that holds everything a request
+ * needs to be authorised: the user and the numbers of the accounts they own. Checking who is calling
+ * and whether they may touch an account therefore costs no database read.
+ *
+ * A valid token whose session isn't cached (issued by another node, before a restart, or evicted
+ * after bank.sessions.idle-timeout or to make room) is trusted on its signature and expiry, and the
+ * session is rebuilt with one read of the principal and their accounts. Sessions end at the token's
+ * expiry (bank.sessions.max-lifetime), when the principal is deleted, or on logout. Logouts and user
+ * deletions are stored in session_revocations; the node that logs a session out drops it at once,
+ * every node pulls new revocations each bank.sessions.revocation-sync-interval and loads all live
+ * ones when it starts. A logout is remembered until its token expires, however many there are.
+ * Tokens survive restarts and work on every node signing with the same bank.sessions.secret;
+ * without one every start signs with a new random key.
+ */
+@Service
+public class SessionService implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(SessionService.class);
+    private static final String HMAC = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+    // Revocations are pulled again this far back, so one that committed late or on a node whose
+    // clock is a little behind isn't missed
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final BankService bankService;
+    private final AdminService adminService;
+    private final SessionRevocationStore revocations;
+    private final Mac signer;
+    private final Duration maxLifetime;
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, Session> sessions;
+    // Ids of logged-out sessions, so their still valid tokens aren't rebuilt. Expires by time only,
+    // dropping an entry early would let its token back in
+    private final Cache<String, Boolean> loggedOut;
+    private Instant syncedAt = Instant.EPOCH; // only touched inside syncRevocations()
+
+    public enum Role {
+        USER, ADMIN
+    }
+
+    /**
+     * A logged-in principal. user and accountNumbers are only set for customers; the user is a
+     * detached snapshot from login time.
+     */
+    public record Session(String id, Role role, Long principalId, String username, User user,
+                          Set<String> accountNumbers, Instant expiresAt) {
+        public boolean owns(String accountNumber) {
+            return accountNumbers.contains(accountNumber);
+        }
+    }
+
+    public record SessionToken(String token, Session session) {
+    }
+
+    @Autowired
+    public SessionService(BankService bankService, AdminService adminService, SessionRevocationStore revocations,
+                          @Value("${bank.sessions.secret:}") String secret,
+                          @Value("${bank.sessions.max-sessions:100000}") long maxSessions,
+                          @Value("${bank.sessions.idle-timeout:30m}") Duration idleTimeout,
+                          @Value("${bank.sessions.max-lifetime:12h}") Duration maxLifetime) {
+        this.bankService = bankService;
+        this.adminService = adminService;
+        this.revocations = revocations;
+        this.signer = newSigner(signingKey(secret));
+        this.maxLifetime = maxLifetime;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSessions)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+        this.loggedOut = Caffeine.newBuilder()
+                .expireAfterWrite(maxLifetime)
+                .build();
+        syncRevocations();
+    }
+
+    public SessionToken loginUser(String username, String password) {
+        User user = bankService.login(username, password);
+        return open(Role.USER, user.getId(), user.getUsername(), user, accountNumbers(user));
+    }
+
+    public SessionToken loginAdmin(String username, String password) {
+        Admin admin = adminService.login(username, password)
+                .orElseThrow(() -> new RuntimeException("Invalid username or password"));
+        return open(Role.ADMIN, admin.getId(), admin.getUsername(), null, Collections.emptySet());
+    }
+
+    /**
+     * The live session the token belongs to, empty for anything forged, expired or logged out.
+     */
+    public Optional<Session> authenticate(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = BASE64_DECODER.decode(token.substring(0, dot));
+            signature = BASE64_DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            return Optional.empty();
+        }
+        // id:role:principal:expiry, the signature vouches for all of it
+        String[] fields = new String(payload, StandardCharsets.UTF_8).split(":");
+        if (fields.length != 4) {
+            return Optional.empty();
+        }
+        Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[3]));
+        if (!expiresAt.isAfter(Instant.now()) || loggedOut.getIfPresent(fields[0]) != null) {
+            return Optional.empty();
+        }
+        Session session = sessions.get(fields[0],
+                id -> reload(id, Role.valueOf(fields[1]), Long.parseLong(fields[2]), expiresAt));
+        return Optional.ofNullable(session);
+    }
+
+    public void logout(Session session) {
+        revocations.revokeSession(session.id(), session.expiresAt());
+        loggedOut.put(session.id(), Boolean.TRUE);
+        sessions.invalidate(session.id());
+    }
+
+    /**
+     * Applies the logouts and user deletions recorded since the last sync, on any node.
+     */
+    @Scheduled(fixedDelayString = "${bank.sessions.revocation-sync-interval:PT5S}")
+    public synchronized void syncRevocations() {
+        Instant started = Instant.now();
+        for (Revocation revocation : revocations.revokedSince(syncedAt.minus(SYNC_OVERLAP))) {
+            if (revocation.sessionId() != null) {
+                loggedOut.put(revocation.sessionId(), Boolean.TRUE);
+                sessions.invalidate(revocation.sessionId());
+            } else {
+                Long userId = revocation.userId();
+                sessions.asMap().values().removeIf(session -> session.role() == Role.USER
+                        && userId.equals(session.principalId()));
+            }
+        }
+        syncedAt = started;
+    }
+
+    @Scheduled(fixedDelayString = "${bank.sessions.revocation-purge-interval:PT10M}")
+    public void purgeExpiredRevocations() {
+        int purged = revocations.purgeExpired();
+        if (purged > 0) {
+            log.info("Purged {} expired session revocations", purged);
+        }
+    }
+
+    // Keeps the session's ownership in step when its user opens an account
+    public void accountOpened(Session session, String accountNumber) {
+        session.accountNumbers().add(accountNumber);
+    }
+
+    // Null when the principal no longer exists
+    private Session reload(String sessionId, Role role, Long principalId, Instant expiresAt) {
+        if (role == Role.ADMIN) {
+            return adminService.getAdminById(principalId)
+                    .map(admin -> new Session(sessionId, role, principalId, admin.getUsername(), null,
+                            Collections.emptySet(), expiresAt))
+                    .orElse(null);
+        }
+        return adminService.getUserById(principalId)
+                .map(user -> new Session(sessionId, role, principalId, user.getUsername(), user,
+                        accountNumbers(user), expiresAt))
+                .orElse(null);
+    }
+
+    private Set<String> accountNumbers(User user) {
+        Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+        for (Account account : bankService.getUserAccounts(user)) {
+            accountNumbers.add(account.getAccountNumber());
+        }
+        return accountNumbers;
+    }
+
+    private SessionToken open(Role role, Long principalId, String username, User user, Set<String> accountNumbers) {
+        byte[] id = new byte[16];
+        random.nextBytes(id);
+        String sessionId = BASE64.encodeToString(id);
+        Instant expiresAt = Instant.now().plus(maxLifetime);
+        Session session = new Session(sessionId, role, principalId, username, user, accountNumbers, expiresAt);
+        sessions.put(sessionId, session);
+
+        byte[] payload = (sessionId + ":" + role + ":" + principalId + ":" + expiresAt.getEpochSecond())
+                .getBytes(StandardCharsets.UTF_8);
+        return new SessionToken(BASE64.encodeToString(payload) + "." + BASE64.encodeToString(sign(payload)), session);
+    }
+
+    // Mac isn't thread-safe, every caller signs with its own clone of the keyed prototype
+    private byte[] sign(byte[] payload) {
+        try {
+            return ((Mac) signer.clone()).doFinal(payload);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public long activeSessions() {
+        return sessions.estimatedSize();
+    }
+
+    // Size and hit ratio as cache_* with cache="sessions"; evictions include idle timeouts
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, sessions, "sessions");
+    }
+
+    private static byte[] signingKey(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("bank.sessions.secret is not set, session tokens are signed with a random key and won't survive a restart");
+            byte[] key = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(key);
+            return key;
+        }
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+        if (key.length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException("bank.sessions.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        return key;
+    }
+
+    private static Mac newSigner(byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(new SecretKeySpec(key, HMAC));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+}
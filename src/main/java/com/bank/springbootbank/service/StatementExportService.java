@@ -0,0 +1,471 @@
+package com.bank.springbootbank.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.springbootbank.model.Money;
+import com.bank.springbootbank.model.TransactionType;
+import com.bank.springbootbank.repository.AccountRepository;
+
+/**
+ * Writes account statements for a period to CSV or fixed-width files.
+ * A coordinator walks account ids in keyset order and cuts them into partitions; each partition is
+ * exported by a bounded pool as one ordered scan (accounts left-joined to their ledger lines, read
+ * through a cursor with a fixed fetch size) into its own file, so heap use does not grow with the
+ * number of accounts or lines.
+ *
+ * Lines come newest first, like the account history. The scan starts from each account's current
+ * balance and walks back: lines posted after the period are only subtracted, every line in the
+ * period is written with the balance after it, and what is left at the end is the opening balance.
+ * Balance and lines are read by the same statement, so they always agree.
+ *
+ * Files are written as .part and renamed when complete, a failed partition leaves no file behind.
+ */
+@Service
+public class StatementExportService {
+    private static final Logger log = LoggerFactory.getLogger(StatementExportService.class);
+
+    private static final String STATEMENT_SCAN = """
+            select a.id, a.account_number, a.account_type, a.account_holder_name, a.balance,
+                   e.posted_at, e.type_code, e.amount, e.description
+            from accounts a
+            left join ledger_entries e on e.account_id = a.id and e.posted_at >= ?
+            where a.id between ? and ? and a.created_at < ?
+            order by a.id, e.posted_at desc, e.id desc""";
+
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+    private final Format defaultFormat;
+    private final int defaultPartitionSize;
+    private final int threads;
+    private final int bufferSize;
+
+    public enum Format {
+        CSV("csv"),
+        FIXED_WIDTH("txt");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    public enum RecordType {
+        CLOSING,
+        LINE,
+        OPENING
+    }
+
+    public record ExportReport(LocalDate from, LocalDate to, Format format, List<Path> files, long accounts,
+                               long lines, long bytes, int partitions, int failedPartitions, Duration elapsed) {
+        public double rowsPerSecond() {
+            double seconds = elapsed.toNanos() / 1_000_000_000.0;
+            return seconds > 0 ? (accounts * 2 + lines) / seconds : 0;
+        }
+    }
+
+    private record PartitionOutcome(Path file, long accounts, long lines, long bytes) {
+    }
+
+    @Autowired
+    public StatementExportService(AccountRepository accountRepository, DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${bank.statements.directory:statements}") Path directory,
+                                  @Value("${bank.statements.format:CSV}") Format defaultFormat,
+                                  @Value("${bank.statements.partition-size:50000}") int defaultPartitionSize,
+                                  @Value("${bank.statements.threads:4}") int threads,
+                                  @Value("${bank.statements.fetch-size:1000}") int fetchSize,
+                                  @Value("${bank.statements.buffer-size:262144}") int bufferSize) {
+        this.accountRepository = accountRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // PostgreSQL only streams with a fetch size inside a transaction, otherwise it buffers the whole result
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.directory = directory;
+        this.defaultFormat = defaultFormat;
+        this.defaultPartitionSize = defaultPartitionSize;
+        this.threads = threads;
+        this.bufferSize = bufferSize;
+    }
+
+    @Scheduled(cron = "${bank.statements.cron:0 0 4 1 * *}")
+    public void exportLastMonth() {
+        YearMonth month = YearMonth.now().minusMonths(1);
+        ExportReport report = export(month.atDay(1), month.plusMonths(1).atDay(1), defaultFormat);
+        log.info("Statements for {}: {} accounts, {} lines, {} bytes in {} files, {} of {} partitions failed in {} ({} rows/s)",
+                month, report.accounts(), report.lines(), report.bytes(), report.files().size(),
+                report.failedPartitions(), report.partitions(), report.elapsed(), Math.round(report.rowsPerSecond()));
+    }
+
+    public ExportReport export(LocalDate from, LocalDate to, Format format) {
+        return export(from, to, format, defaultPartitionSize);
+    }
+
+    /**
+     * Writes the statements of every account opened before to, for lines posted from (inclusive)
+     * to to (exclusive), one file per partition of partitionSize accounts.
+     */
+    public ExportReport export(LocalDate from, LocalDate to, Format format, int partitionSize) {
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("Statement period must end after it starts");
+        }
+        if (partitionSize < 1) {
+            throw new IllegalArgumentException("Partition size must be positive");
+        }
+        long started = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create statement directory " + directory, e);
+        }
+
+        // Bounded queue plus caller-runs: the scan can never get more than a few partitions ahead of the workers
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        List<Future<PartitionOutcome>> futures = new ArrayList<>();
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Long> ids = accountRepository.findIdsAfter(afterId, Limit.of(partitionSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                long firstId = ids.get(0);
+                long lastId = ids.get(ids.size() - 1);
+                int number = futures.size() + 1;
+                afterId = lastId;
+                futures.add(executor.submit(() -> exportPartition(number, firstId, lastId, from, to, format)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Path> files = new ArrayList<>();
+        long accounts = 0;
+        long lines = 0;
+        long bytes = 0;
+        int failed = 0;
+        for (Future<PartitionOutcome> future : futures) {
+            try {
+                PartitionOutcome outcome = future.get();
+                files.add(outcome.file());
+                accounts += outcome.accounts();
+                lines += outcome.lines();
+                bytes += outcome.bytes();
+            } catch (ExecutionException e) {
+                failed++;
+                log.warn("Statement partition failed: {}", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Statement export interrupted");
+            }
+        }
+        return new ExportReport(from, to, format, files, accounts, lines, bytes, futures.size(), failed,
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private PartitionOutcome exportPartition(int number, long firstId, long lastId, LocalDate from, LocalDate to,
+                                             Format format) throws IOException {
+        Path file = directory.resolve(String.format("statements-%s-%s-%05d.%s", from, to, number, format.getExtension()));
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        StatementAssembler assembler;
+        try (StatementWriter writer = new StatementWriter(partial, format, from, to, bufferSize)) {
+            assembler = new StatementAssembler(writer, to.atStartOfDay());
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(STATEMENT_SCAN, assembler,
+                    from.atStartOfDay(), firstId, lastId, to.atStartOfDay()));
+            assembler.finishAccount();
+        } catch (RuntimeException | IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new PartitionOutcome(file, assembler.accounts, assembler.lines, Files.size(file));
+    }
+
+    // Turns the ordered scan into statement records, one account at a time
+    private static final class StatementAssembler implements RowCallbackHandler {
+        private final StatementWriter writer;
+        private final LocalDateTime periodEnd;
+        private long accountId = -1;
+        private long balanceCents;
+        private boolean closingWritten;
+        private long accounts;
+        private long lines;
+
+        StatementAssembler(StatementWriter writer, LocalDateTime periodEnd) {
+            this.writer = writer;
+            this.periodEnd = periodEnd;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            if (id != accountId) {
+                finishAccount();
+                accountId = id;
+                writer.startAccount(rs.getString(2), rs.getString(3), rs.getString(4));
+                balanceCents = cents(rs.getBigDecimal(5));
+                closingWritten = false;
+            }
+            LocalDateTime postedAt = rs.getObject(6, LocalDateTime.class);
+            if (postedAt == null) {
+                return; // no lines since the period started
+            }
+            long amountCents = cents(rs.getBigDecimal(8));
+            if (!postedAt.isBefore(periodEnd)) {
+                balanceCents -= amountCents; // after the period, only moves the balance back to its end
+                return;
+            }
+            if (!closingWritten) {
+                writer.write(RecordType.CLOSING, null, null, 0, balanceCents, null);
+                closingWritten = true;
+            }
+            writer.write(RecordType.LINE, postedAt, TransactionType.fromCode(rs.getShort(7)), amountCents,
+                    balanceCents, rs.getString(9));
+            balanceCents -= amountCents;
+            lines++;
+        }
+
+        void finishAccount() {
+            if (accountId < 0) {
+                return;
+            }
+            if (!closingWritten) {
+                writer.write(RecordType.CLOSING, null, null, 0, balanceCents, null);
+            }
+            writer.write(RecordType.OPENING, null, null, 0, balanceCents, null);
+            accounts++;
+            accountId = -1;
+        }
+
+        private static long cents(BigDecimal amount) {
+            return Money.of(amount).cents();
+        }
+    }
+
+    /**
+     * Formats records into a reused line buffer and encodes them straight into a direct byte buffer
+     * that is written to the file channel whenever it fills up.
+     */
+    private static final class StatementWriter implements Closeable {
+        private static final String CSV_HEADER =
+                "record,account_number,account_type,account_holder,posted_at,transaction_type,amount,balance,description";
+        private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        // record, account number, account type, holder, posted at, transaction type, amount, balance, description
+        private static final int[] WIDTHS = {7, 20, 10, 30, 19, 10, 18, 18, 40};
+        private static final String SPACES = " ".repeat(40);
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final StringBuilder line = new StringBuilder(256);
+        private final Format format;
+        private final LocalDateTime periodStart;
+        private final LocalDateTime periodEnd;
+        private String accountNumber;
+        private String accountType;
+        private String accountHolder;
+
+        StatementWriter(Path file, Format format, LocalDate from, LocalDate to, int bufferSize) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+            this.format = format;
+            this.periodStart = from.atStartOfDay();
+            this.periodEnd = to.atStartOfDay();
+            if (format == Format.CSV) {
+                line.append(CSV_HEADER).append('\n');
+                encodeLine();
+            }
+        }
+
+        void startAccount(String accountNumber, String accountType, String accountHolder) {
+            this.accountNumber = accountNumber;
+            this.accountType = accountType;
+            this.accountHolder = accountHolder;
+        }
+
+        // Opening and closing records carry the period bound as their time and no amount
+        void write(RecordType record, LocalDateTime postedAt, TransactionType type, long amountCents,
+                   long balanceCents, String description) {
+            line.setLength(0);
+            boolean isLine = record == RecordType.LINE;
+            LocalDateTime at = isLine ? postedAt : record == RecordType.OPENING ? periodStart : periodEnd;
+            text(0, record.name());
+            text(1, accountNumber);
+            text(2, accountType);
+            text(3, accountHolder);
+            separate(4);
+            int start = line.length();
+            TIMESTAMP.formatTo(at, line);
+            pad(4, start);
+            text(5, isLine ? type.name() : null);
+            separate(6);
+            start = line.length();
+            if (isLine) {
+                appendCents(line, amountCents);
+            }
+            alignRight(6, start);
+            separate(7);
+            start = line.length();
+            appendCents(line, balanceCents);
+            alignRight(7, start);
+            text(8, description);
+            line.append('\n');
+            encodeLine();
+        }
+
+        private void text(int column, String value) {
+            separate(column);
+            if (value == null) {
+                pad(column, line.length());
+            } else if (format == Format.CSV) {
+                csv(value);
+            } else {
+                int start = line.length();
+                for (int i = 0; i < value.length() && i < WIDTHS[column]; i++) {
+                    char c = value.charAt(i);
+                    line.append(Character.isISOControl(c) ? ' ' : c);
+                }
+                pad(column, start);
+            }
+        }
+
+        private void separate(int column) {
+            if (column > 0) {
+                line.append(format == Format.CSV ? ',' : ' ');
+            }
+        }
+
+        private void csv(String value) {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
+        }
+
+        // Fixed-width columns are left-aligned and space-padded, CSV columns are left as they are
+        private void pad(int column, int start) {
+            if (format == Format.FIXED_WIDTH) {
+                for (int i = line.length() - start; i < WIDTHS[column]; i++) {
+                    line.append(' ');
+                }
+            }
+        }
+
+        // Numeric columns are right-aligned, the padding goes in front of the digits once they are known
+        private void alignRight(int column, int start) {
+            if (format == Format.FIXED_WIDTH) {
+                int missing = WIDTHS[column] - (line.length() - start);
+                if (missing > 0) {
+                    line.insert(start, SPACES, 0, missing);
+                }
+            }
+        }
+
+        private static void appendCents(StringBuilder target, long cents) {
+            long abs = Math.abs(cents);
+            long fraction = abs % 100;
+            if (cents < 0) {
+                target.append('-');
+            }
+            target.append(abs / 100).append(fraction < 10 ? ".0" : ".").append(fraction);
+        }
+
+        private void encodeLine() {
+            CharBuffer chars = CharBuffer.wrap(line);
+            while (encoder.encode(chars, buffer, false) == CoderResult.OVERFLOW) {
+                drain();
+            }
+        }
+
+        private void drain() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                encoder.encode(CharBuffer.allocate(0), buffer, true);
+                encoder.flush(buffer);
+                drain();
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.bank.springbootbank.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.bank.springbootbank.model.Money;
+
+// Default source, the apy_tiers table (bank.rates.source=table)
+@Component
+@ConditionalOnProperty(name = "bank.rates.source", havingValue = "table", matchIfMissing = true)
+public class TableApyTierSource implements ApyTierSource {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TableApyTierSource(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<ApyTier> loadTiers() {
+        return jdbcTemplate.query("select account_type, effective_from, minimum_balance, apy from apy_tiers " +
+                        "order by account_type, effective_from, minimum_balance",
+                (rs, row) -> new ApyTier(rs.getString(1), rs.getDate(2).toLocalDate(),
+                        Money.of(rs.getBigDecimal(3)), rs.getBigDecimal(4)));
+    }
+}
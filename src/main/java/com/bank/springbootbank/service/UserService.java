@@ -3,6 +3,7 @@ package com.bank.springbootbank.service;
 import com.bank.springbootbank.model.User;
 import com.bank.springbootbank.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,11 +14,24 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RegisteredUserFilter registeredUsers;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    // Takes the user with a raw password, stores a bcrypt hash like registerUser does
     public User createUser(User user) {
-        if (userRepository.existsByUsername(user.getUsername())) {
+        if (registeredUsers.usernameExists(user.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
-        return userRepository.save(user);
+        user.setPassword(passwordHasher.hash(user.getPassword()));
+        registeredUsers.added(user.getUsername(), user.getEmail());
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw RegisteredUserFilter.duplicateUser(e);
+        }
     }
 
     public Optional<User> findByUsername(String username) {
@@ -0,0 +1,139 @@
+package com.bank.springbootbank.web;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bank.springbootbank.dto.AccountView;
+import com.bank.springbootbank.dto.AmountRequest;
+import com.bank.springbootbank.dto.OpenAccountRequest;
+import com.bank.springbootbank.dto.RegistrationRequest;
+import com.bank.springbootbank.dto.TransactionPage;
+import com.bank.springbootbank.dto.TransactionView;
+import com.bank.springbootbank.dto.TransferRequest;
+import com.bank.springbootbank.dto.UserView;
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.service.BankService;
+import com.bank.springbootbank.service.SessionService;
+import com.bank.springbootbank.service.SessionService.Session;
+
+/**
+ * Customer operations over HTTP, the same calls the console makes.
+ * Every request runs on its own virtual thread (spring.threads.virtual.enabled), so a request
+ * waiting on a row lock or a pooled connection doesn't pin a platform thread.
+ * Money movements accept an Idempotency-Key header, a retried request with the same key
+ * gets the original transaction back instead of posting again.
+ *
+ * Callers are identified by their session (see SessionFilter) and may only use their own
+ * user id and accounts; anything else looks the same as a missing one. Both checks are
+ * answered from the session, without a database read.
+ */
+@RestController
+@RequestMapping("/api")
+public class AccountController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private final BankService bankService;
+    private final SessionService sessionService;
+
+    @Autowired
+    public AccountController(BankService bankService, SessionService sessionService) {
+        this.bankService = bankService;
+        this.sessionService = sessionService;
+    }
+
+    @PostMapping("/users")
+    @ResponseStatus(HttpStatus.CREATED)
+    public UserView registerUser(@RequestBody RegistrationRequest request) {
+        return UserView.from(bankService.registerUser(request.username(), request.password(), request.fullName(),
+                request.address(), request.phoneNumber(), request.email()));
+    }
+
+    @PostMapping("/users/{userId}/accounts")
+    @ResponseStatus(HttpStatus.CREATED)
+    public AccountView openAccount(@RequestAttribute(SessionFilter.SESSION) Session session,
+                                   @PathVariable Long userId, @RequestBody OpenAccountRequest request) {
+        int accountTypeChoice = switch (String.valueOf(request.accountType())) {
+            case "CHECKING" -> 1;
+            case "SAVINGS" -> 2;
+            default -> throw new IllegalArgumentException("Account type must be CHECKING or SAVINGS");
+        };
+        Account account = bankService.createAccount(requireUser(session, userId), accountTypeChoice);
+        sessionService.accountOpened(session, account.getAccountNumber());
+        return AccountView.from(account);
+    }
+
+    @GetMapping("/users/{userId}/accounts")
+    public List<AccountView> getUserAccounts(@RequestAttribute(SessionFilter.SESSION) Session session,
+                                             @PathVariable Long userId) {
+        return bankService.getUserAccounts(requireUser(session, userId)).stream().map(AccountView::from).toList();
+    }
+
+    @GetMapping("/accounts/{accountNumber}")
+    public AccountView getAccount(@RequestAttribute(SessionFilter.SESSION) Session session,
+                                  @PathVariable String accountNumber) {
+        return AccountView.from(bankService.getAccount(requireOwned(session, accountNumber)));
+    }
+
+    @PostMapping("/accounts/{accountNumber}/deposits")
+    @ResponseStatus(HttpStatus.CREATED)
+    public TransactionView deposit(@RequestAttribute(SessionFilter.SESSION) Session session,
+                                   @PathVariable String accountNumber, @RequestBody AmountRequest request,
+                                   @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return TransactionView.from(bankService.deposit(requireOwned(session, accountNumber), request.amount(),
+                idempotencyKey));
+    }
+
+    @PostMapping("/accounts/{accountNumber}/withdrawals")
+    @ResponseStatus(HttpStatus.CREATED)
+    public TransactionView withdraw(@RequestAttribute(SessionFilter.SESSION) Session session,
+                                    @PathVariable String accountNumber, @RequestBody AmountRequest request,
+                                    @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return TransactionView.from(bankService.withdraw(requireOwned(session, accountNumber), request.amount(),
+                idempotencyKey));
+    }
+
+    @PostMapping("/transfers")
+    @ResponseStatus(HttpStatus.CREATED)
+    public TransactionView transfer(@RequestAttribute(SessionFilter.SESSION) Session session,
+                                    @RequestBody TransferRequest request,
+                                    @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        // Money can go to any account, but only leave the caller's own
+        return TransactionView.from(bankService.transfer(requireOwned(session, request.fromAccountNumber()),
+                request.toAccountNumber(), request.amount(), idempotencyKey));
+    }
+
+    @GetMapping("/accounts/{accountNumber}/transactions")
+    public TransactionPage getTransactionHistory(@RequestAttribute(SessionFilter.SESSION) Session session,
+                                                 @PathVariable String accountNumber,
+                                                 @RequestParam(defaultValue = "20") int pageSize,
+                                                 @RequestParam(required = false) String pageToken) {
+        return bankService.getTransactionHistory(requireOwned(session, accountNumber), pageSize, pageToken);
+    }
+
+    private static User requireUser(Session session, Long userId) {
+        if (!session.principalId().equals(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        return session.user();
+    }
+
+    private static String requireOwned(Session session, String accountNumber) {
+        if (!session.owns(accountNumber)) {
+            throw new RuntimeException("Account not found");
+        }
+        return accountNumber;
+    }
+}
@@ -0,0 +1,69 @@
+package com.bank.springbootbank.web;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.bank.springbootbank.dto.AccountSummary;
+import com.bank.springbootbank.dto.UserView;
+import com.bank.springbootbank.service.AdminService;
+import com.bank.springbootbank.service.SessionService.Role;
+import com.bank.springbootbank.service.SessionService.Session;
+
+/**
+ * Admin listings and deletes over HTTP, for admin sessions only. SessionFilter turns everyone
+ * else away already, every handler checks the session's role again in case a request reaches it
+ * some other way.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private final AdminService adminService;
+
+    @Autowired
+    public AdminController(AdminService adminService) {
+        this.adminService = adminService;
+    }
+
+    @GetMapping("/users")
+    public List<UserView> getAllUsers(@RequestAttribute(SessionFilter.SESSION) Session session) {
+        requireAdmin(session);
+        return adminService.getAllUsers().stream().map(UserView::from).toList();
+    }
+
+    @GetMapping("/accounts")
+    public List<AccountSummary> getAllAccounts(@RequestAttribute(SessionFilter.SESSION) Session session) {
+        requireAdmin(session);
+        return adminService.getAllAccounts();
+    }
+
+    @DeleteMapping("/users/{userId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteUser(@RequestAttribute(SessionFilter.SESSION) Session session, @PathVariable Long userId) {
+        requireAdmin(session);
+        adminService.deleteUser(userId);
+    }
+
+    @DeleteMapping("/accounts/{accountId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteAccount(@RequestAttribute(SessionFilter.SESSION) Session session,
+                              @PathVariable Long accountId) {
+        requireAdmin(session);
+        adminService.deleteAccount(accountId);
+    }
+
+    private static void requireAdmin(Session session) {
+        if (session.role() != Role.ADMIN) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.bank.springbootbank.web;
+
+import java.sql.SQLException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.bank.springbootbank.dto.ErrorResponse;
+
+/**
+ * Turns the services' exceptions into JSON errors.
+ * The services signal business errors with a plain RuntimeException (or an IllegalArgumentException)
+ * and a message for the user, "... not found" becomes a 404 and everything else a 400. Any other
+ * exception is a bug and comes back as a 500 without its message.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+    private static final Logger log = LoggerFactory.getLogger(ApiExceptionHandler.class);
+    // SQLSTATE for a unique violation, the same on H2 and PostgreSQL
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleLockFailure(PessimisticLockingFailureException e) {
+        return error(HttpStatus.CONFLICT, "Account is busy, please retry");
+    }
+
+    // A request the constraints turned away: a missing field or a duplicate the services didn't name
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleIntegrityViolation(DataIntegrityViolationException e) {
+        if (e.getMostSpecificCause() instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+            return error(HttpStatus.CONFLICT, "Already exists");
+        }
+        return error(HttpStatus.BAD_REQUEST, "Missing or invalid fields");
+    }
+
+    @ExceptionHandler(DataAccessException.class)
+    public ResponseEntity<ErrorResponse> handleDataAccess(DataAccessException e) {
+        // Don't leak SQL to clients
+        return error(HttpStatus.SERVICE_UNAVAILABLE, "Database unavailable, please retry");
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleOverload(RejectedExecutionException e) {
+        return error(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
+    @ExceptionHandler({HttpMessageNotReadableException.class, MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<ErrorResponse> handleMalformedRequest(Exception e) {
+        return error(HttpStatus.BAD_REQUEST, "Malformed request");
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleStatus(ResponseStatusException e) {
+        return ResponseEntity.status(e.getStatusCode()).body(new ErrorResponse(e.getReason()));
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<ErrorResponse> handleBusinessError(RuntimeException e) {
+        if (e.getClass() != RuntimeException.class && !(e instanceof IllegalArgumentException)) {
+            log.error("Unhandled exception in API request", e);
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "Internal error");
+        }
+        String message = e.getMessage();
+        if (message != null && message.endsWith("not found")) {
+            return error(HttpStatus.NOT_FOUND, message);
+        }
+        return error(HttpStatus.BAD_REQUEST, message);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(new ErrorResponse(message));
+    }
+}
@@ -0,0 +1,107 @@
+package com.bank.springbootbank.web;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Caps the number of API requests in flight.
+ * Virtual threads make threads free, so nothing else stops a burst from queueing up unbounded
+ * behind the connection pool and row locks. A request that can't get a permit within
+ * bank.web.acquire-timeout is turned away with 503 and Retry-After instead.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+    private static final UrlPathHelper PATHS = UrlPathHelper.defaultInstance;
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Autowired
+    public ConcurrencyLimitFilter(@Value("${bank.web.max-concurrent-requests:2000}") int maxConcurrentRequests,
+                                  @Value("${bank.web.acquire-timeout:100ms}") Duration acquireTimeout) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("Max concurrent requests must be positive");
+        }
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // The path the handler mappings see, so "//api/..." or "/api;x/..." can't get around the limit
+        return !PATHS.getPathWithinApplication(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.incrementAndGet();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Too many requests in flight, please retry\"}");
+            return;
+        }
+        try {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            chain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bank.web.in-flight", inFlight, AtomicInteger::get)
+                .description("API requests holding a permit")
+                .register(registry);
+        FunctionCounter.builder("bank.web.rejected", rejected, AtomicLong::get)
+                .description("API requests turned away with 503")
+                .register(registry);
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int peakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+}
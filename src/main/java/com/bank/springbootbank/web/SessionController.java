@@ -0,0 +1,48 @@
+package com.bank.springbootbank.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bank.springbootbank.dto.LoginRequest;
+import com.bank.springbootbank.dto.SessionView;
+import com.bank.springbootbank.service.SessionService;
+import com.bank.springbootbank.service.SessionService.Session;
+
+/**
+ * Customer and admin login and logout over HTTP.
+ */
+@RestController
+@RequestMapping("/api")
+public class SessionController {
+    private final SessionService sessionService;
+
+    @Autowired
+    public SessionController(SessionService sessionService) {
+        this.sessionService = sessionService;
+    }
+
+    @PostMapping("/sessions")
+    @ResponseStatus(HttpStatus.CREATED)
+    public SessionView login(@RequestBody LoginRequest request) {
+        return SessionView.from(sessionService.loginUser(request.username(), request.password()));
+    }
+
+    @PostMapping("/admin/sessions")
+    @ResponseStatus(HttpStatus.CREATED)
+    public SessionView adminLogin(@RequestBody LoginRequest request) {
+        return SessionView.from(sessionService.loginAdmin(request.username(), request.password()));
+    }
+
+    @DeleteMapping({"/sessions", "/admin/sessions"})
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@RequestAttribute(SessionFilter.SESSION) Session session) {
+        sessionService.logout(session);
+    }
+}
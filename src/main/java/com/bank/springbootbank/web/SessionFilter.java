@@ -0,0 +1,82 @@
+package com.bank.springbootbank.web;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.bank.springbootbank.service.SessionService;
+import com.bank.springbootbank.service.SessionService.Role;
+import com.bank.springbootbank.service.SessionService.Session;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Requires a session token ("Authorization: Bearer <token>") on every request except
+ * registration, login and the actuator endpoints, and an admin session under /api/admin/.
+ * The session is handed to the controllers as the request attribute SESSION.
+ *
+ * Paths are judged the way the handler mappings see them: decoded, with ";" path parameters
+ * removed and repeated slashes merged. The raw request URI would let "/api/admin;x/users" or
+ * "//api/..." through to an admin or customer handler.
+ */
+@Component
+public class SessionFilter extends OncePerRequestFilter {
+    public static final String SESSION = "bank.session";
+    private static final String BEARER = "Bearer ";
+    private static final UrlPathHelper PATHS = UrlPathHelper.defaultInstance;
+
+    private final SessionService sessionService;
+
+    @Autowired
+    public SessionFilter(SessionService sessionService) {
+        this.sessionService = sessionService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = PATHS.getPathWithinApplication(request);
+        if (path.equals("/actuator") || path.startsWith("/actuator/")) {
+            return true;
+        }
+        return HttpMethod.POST.matches(request.getMethod())
+                && (path.equals("/api/users") || path.equals("/api/sessions") || path.equals("/api/admin/sessions"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        Optional<Session> session = header != null && header.startsWith(BEARER)
+                ? sessionService.authenticate(header.substring(BEARER.length()))
+                : Optional.empty();
+        if (session.isEmpty()) {
+            reject(response, HttpStatus.UNAUTHORIZED, "Please log in");
+            return;
+        }
+        String path = PATHS.getPathWithinApplication(request);
+        Role required = path.equals("/api/admin") || path.startsWith("/api/admin/") ? Role.ADMIN : Role.USER;
+        if (session.get().role() != required) {
+            reject(response, HttpStatus.FORBIDDEN, "Not allowed");
+            return;
+        }
+        request.setAttribute(SESSION, session.get());
+        chain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
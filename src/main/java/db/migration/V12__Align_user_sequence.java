@@ -0,0 +1,14 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Users were numbered by the IDENTITY column until V11, move users_seq past them.
+ */
+public class V12__Align_user_sequence extends BaseJavaMigration {
+    @Override
+    public void migrate(Context context) throws Exception {
+        V3__Align_id_sequences.restartAfterMaxId(context.getConnection(), "users", "users_seq");
+    }
+}
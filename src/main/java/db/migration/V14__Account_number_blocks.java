@@ -0,0 +1,36 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * account_number_seq used to hand out block numbers that the generator multiplied by the configured
+ * block size, so lowering the block size between restarts reused ranges already issued.
+ * The sequence now hands out the block's offset itself and its increment is the block size.
+ * It restarts at the first block boundary past the highest 12-digit account number issued so far.
+ */
+public class V14__Account_number_blocks extends BaseJavaMigration {
+    private static final long BLOCK_SIZE = 1000;
+    private static final long BODY_BASE = 10_000_000_000L;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        long maxOffset = 0;
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(
+                     "select max(account_number) from accounts where length(account_number) = 12")) {
+            if (result.next() && result.getString(1) != null) {
+                maxOffset = Long.parseLong(result.getString(1)) / 10 - BODY_BASE; // drop the check digit
+            }
+        }
+        long restart = (maxOffset / BLOCK_SIZE + 1) * BLOCK_SIZE;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter sequence account_number_seq restart with " + restart + " increment by " + BLOCK_SIZE);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Replaces the unnamed unique constraint V1 put on users.username with the index uk_users_username,
+ * so a duplicate username can be told apart from other integrity violations by name.
+ * Runs as Java because the generated constraint name differs between H2 and PostgreSQL.
+ */
+public class V18__Name_username_constraint extends BaseJavaMigration {
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            // Created first, so usernames stay unique throughout
+            statement.execute("create unique index if not exists uk_users_username on users (username)");
+        }
+        String constraint = null;
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("select c.constraint_name"
+                     + " from information_schema.table_constraints c"
+                     + " join information_schema.key_column_usage k on k.constraint_schema = c.constraint_schema"
+                     + " and k.constraint_name = c.constraint_name"
+                     + " where c.constraint_type = 'UNIQUE' and lower(c.table_name) = 'users'"
+                     + " and lower(c.table_schema) = lower(current_schema) and lower(k.column_name) = 'username'")) {
+            if (result.next()) {
+                constraint = result.getString(1);
+            }
+        }
+        if (constraint == null) {
+            return; // already gone
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table users drop constraint \"" + constraint + "\"");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Moves the pooled id sequences past the ids already handed out by the old IDENTITY columns.
+ * Hibernate's pooled optimizer uses the block below the value it reads, so one extra
+ * allocation block (50) is skipped to stay clear of existing rows.
+ * Runs as Java because H2 and PostgreSQL only agree on ALTER SEQUENCE with a literal value.
+ */
+public class V3__Align_id_sequences extends BaseJavaMigration {
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        restartAfterMaxId(connection, "accounts", "accounts_seq");
+        restartAfterMaxId(connection, "transactions", "transactions_seq");
+    }
+
+    static void restartAfterMaxId(Connection connection, String table, String sequence) throws Exception {
+        long maxId;
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+            result.next();
+            maxId = result.getLong(1);
+        }
+        if (maxId == 0) {
+            return; // fresh database, the sequence already starts at 1
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter sequence " + sequence + " restart with " + (maxId + 1 + ALLOCATION_SIZE));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * V6 backfilled transactions and ledger entries with ids computed in SQL,
+ * move both sequences past them.
+ */
+public class V7__Align_ledger_sequences extends BaseJavaMigration {
+    @Override
+    public void migrate(Context context) throws Exception {
+        V3__Align_id_sequences.restartAfterMaxId(context.getConnection(), "transactions", "transactions_seq");
+        V3__Align_id_sequences.restartAfterMaxId(context.getConnection(), "ledger_entries", "ledger_entries_seq");
+    }
+}
@@ -0,0 +1,19 @@
+-- APY tier tables, one table per (account type, effective date). A balance earns the apy of the
+-- highest minimum_balance it reaches, the table with the latest effective_from not after today applies.
+create table if not exists apy_tiers (
+    account_type varchar(255) not null,
+    effective_from date not null,
+    minimum_balance numeric(38, 2) not null,
+    apy numeric(9, 6) not null,
+    primary key (account_type, effective_from, minimum_balance)
+);
+
+-- The tiers BankService had hard-coded
+insert into apy_tiers (account_type, effective_from, minimum_balance, apy) values
+    ('SAVINGS', date '2000-01-01', 0, 0.02),
+    ('SAVINGS', date '2000-01-01', 1000, 0.03),
+    ('SAVINGS', date '2000-01-01', 5000, 0.04),
+    ('SAVINGS', date '2000-01-01', 10000, 0.05);
+
+-- Rates like 4.5% need more than the two decimals accounts.apy had
+alter table accounts alter column apy set data type numeric(9, 6);
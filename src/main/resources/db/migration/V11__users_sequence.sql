@@ -0,0 +1,6 @@
+-- Pooled user ids so registrations and imports can go out as JDBC batches, V12 moves the sequence past existing ids.
+-- The increment must match allocationSize on User.
+create sequence if not exists users_seq start with 1 increment by 50;
+
+-- Registration and the customer import look users up by email
+create index if not exists idx_users_email on users (email);
@@ -0,0 +1,11 @@
+-- Emails are unique like usernames. Registration only checks the database when the in-memory
+-- RegisteredUserFilter says a name or email might be taken, so both constraints are what finally
+-- rejects a duplicate.
+
+-- Concurrent registrations could let the same email in twice. The earliest user keeps it, later ones
+-- get it back with "#duplicate-<id>" appended. Find them with: where email like '%#duplicate-%'
+update users set email = concat(left(email, 200), '#duplicate-', id)
+where exists (select 1 from users earlier where earlier.email = users.email and earlier.id < users.id);
+
+drop index if exists idx_users_email;
+create unique index if not exists uk_users_email on users (email);
@@ -0,0 +1,2 @@
+-- Fractions of a cent an interest run earned but couldn't pay, carried into the next run
+alter table accounts add column if not exists interest_remainder numeric(20, 10) default 0 not null;
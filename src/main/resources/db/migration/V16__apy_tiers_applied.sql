@@ -0,0 +1,8 @@
+-- The tier rates each account type's stored APYs were last re-tiered to. Empty until the first
+-- start after this migration, which re-tiers every type once.
+create table if not exists apy_tiers_applied (
+    account_type varchar(255) primary key,
+    effective_from date not null,
+    rates varchar(4000) not null,
+    applied_at timestamp(6) not null
+);
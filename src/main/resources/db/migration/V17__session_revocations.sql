@@ -0,0 +1,13 @@
+-- Logged-out sessions and deleted users, so every node stops honouring their still signed tokens.
+-- A row is kept until the tokens it covers would have expired anyway.
+create table if not exists session_revocations (
+    id bigint generated by default as identity primary key,
+    session_id varchar(64),
+    user_id bigint,
+    revoked_at timestamp(6) not null,
+    expires_at timestamp(6) not null
+);
+
+-- Nodes pull recent revocations, the background purge drops expired ones
+create index if not exists idx_session_revocations_revoked_at on session_revocations (revoked_at);
+create index if not exists idx_session_revocations_expires_at on session_revocations (expires_at);
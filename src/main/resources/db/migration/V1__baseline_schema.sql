@@ -0,0 +1,48 @@
+-- Schema as Hibernate created it with ddl-auto=update.
+-- Every statement is guarded so databases created before migrations were introduced are left as they are.
+
+create table if not exists users (
+    id bigint generated by default as identity primary key,
+    username varchar(255) not null unique,
+    password varchar(255) not null,
+    full_name varchar(255) not null,
+    address varchar(255) not null,
+    phone_number varchar(255) not null,
+    email varchar(255) not null,
+    is_admin boolean not null,
+    created_at timestamp(6) not null
+);
+
+create table if not exists admins (
+    id bigint generated by default as identity primary key,
+    username varchar(255) not null unique,
+    password varchar(255) not null,
+    email varchar(255) not null,
+    full_name varchar(255) not null
+);
+
+create table if not exists accounts (
+    id bigint primary key,
+    account_number varchar(255) not null unique,
+    account_type varchar(255) not null,
+    balance numeric(38, 2) not null,
+    account_holder_name varchar(255) not null,
+    apy numeric(38, 2),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    last_interest_calculation timestamp(6),
+    user_id bigint not null references users (id)
+);
+
+create table if not exists transactions (
+    id bigint primary key,
+    account_id bigint not null references accounts (id),
+    transaction_type varchar(255) not null,
+    amount numeric(38, 2) not null,
+    transaction_date timestamp(6) not null,
+    description varchar(255)
+);
+
+-- Pooled id allocation, the increment must match allocationSize on the entities
+create sequence if not exists accounts_seq start with 1 increment by 50;
+create sequence if not exists transactions_seq start with 1 increment by 50;
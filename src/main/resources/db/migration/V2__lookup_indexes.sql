@@ -0,0 +1,5 @@
+-- Transaction history (keyset on date, id) and the per-account delete filter on account_id
+create index if not exists idx_transactions_account_date on transactions (account_id, transaction_date desc, id desc);
+
+-- findByUserId runs behind every menu action
+create index if not exists idx_accounts_user_id on accounts (user_id);
@@ -0,0 +1,2 @@
+-- Each value reserves one block of account numbers (bank.account-number.block-size) for a node
+create sequence if not exists account_number_seq start with 1 increment by 1;
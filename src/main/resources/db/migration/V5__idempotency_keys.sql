@@ -0,0 +1,12 @@
+-- First result of every money-movement request that carried an Idempotency-Key
+create table if not exists idempotency_keys (
+    idempotency_key varchar(100) not null,
+    request_fingerprint varchar(255) not null,
+    transaction_id bigint,
+    created_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    primary key (idempotency_key)
+);
+
+-- Background purge of expired keys
+create index if not exists idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
@@ -0,0 +1,10 @@
+-- Balance of each account as of a cutoff time, written by BalanceSnapshotService.
+-- Derived from ledger_entries, so the rows simply go away with their account.
+create table if not exists balance_snapshots (
+    account_id bigint not null references accounts (id) on delete cascade,
+    as_of timestamp(6) not null,
+    last_entry_id bigint not null,
+    balance numeric(38, 2) not null,
+    created_at timestamp(6) not null,
+    primary key (account_id, as_of)
+);
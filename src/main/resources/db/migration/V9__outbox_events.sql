@@ -0,0 +1,16 @@
+-- Transaction events waiting for the outbox relay, a row is deleted once its sink accepted it.
+-- No foreign keys: an event must still go out when its account or transaction was deleted meanwhile.
+create table if not exists outbox_events (
+    id bigint primary key,
+    transaction_id bigint not null,
+    type_code smallint not null,
+    account_number varchar(255) not null,
+    counterparty_account_number varchar(255),
+    amount numeric(38, 2) not null,
+    description varchar(255),
+    occurred_at timestamp(6) not null
+);
+
+-- Increment 1 on purpose: ids are drawn while the account row is locked, so per account
+-- they follow commit order across every node, which pooled blocks of 50 would not guarantee
+create sequence if not exists outbox_events_seq start with 1 increment by 1;
@@ -0,0 +1,103 @@
+package com.bank.springbootbank.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Thousands of terminals connected at once, with some of them working through the menus meanwhile.
+ */
+@SpringBootTest(properties = {"bank.terminal.enabled=true", "bank.terminal.port=0"})
+class TerminalServerTest {
+    private static final int IDLE_TERMINALS = 2_000;
+    private static final int BUSY_TERMINALS = 50;
+    private static final String PROMPT = "Enter your choice: ";
+
+    @Autowired
+    private TerminalServer terminalServer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void thousandsOfConcurrentSessionsEachWithTheirOwnLogin() throws Exception {
+        List<Socket> idle = new ArrayList<>(IDLE_TERMINALS);
+        try {
+            for (int i = 0; i < IDLE_TERMINALS; i++) {
+                Socket socket = new Socket("localhost", terminalServer.getPort());
+                idle.add(socket);
+            }
+            // Every connection is served by its own session, all of them showing the main menu
+            for (Socket socket : idle) {
+                readUntil(socket.getInputStream(), PROMPT);
+            }
+            assertEquals(IDLE_TERMINALS, terminalServer.activeSessions());
+
+            List<Future<String>> transcripts = new ArrayList<>();
+            try (ExecutorService terminals = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < BUSY_TERMINALS; i++) {
+                    String username = "term" + i;
+                    transcripts.add(terminals.submit(() -> runScript(script(username))));
+                }
+            }
+            for (Future<String> transcript : transcripts) {
+                String output = transcript.get();
+                assertTrue(output.contains("Login successful!"), output);
+                assertTrue(output.contains("Current Balance: 100.00"), output);
+                assertTrue(output.endsWith("Thank you for using Spring Boot Bank!\n"), output);
+            }
+        } finally {
+            for (Socket socket : idle) {
+                socket.close();
+            }
+        }
+
+        Timer balanceChecks = meterRegistry.get("bank.terminal.commands").tag("command", "check-balance").timer();
+        assertEquals(BUSY_TERMINALS, balanceChecks.count());
+        for (int i = 0; i < 100 && terminalServer.activeSessions() > 0; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, terminalServer.activeSessions());
+    }
+
+    // Register with a checking account and a deposit, log in, check the balance, log out and exit
+    private static String script(String username) {
+        return String.join("\n", "3", username, "secret", "Terminal User", "1 Main St", "555-0100",
+                username + "@bank.com", "2", "yes", "100", "1", username, "secret", "3", "2", "6", "4") + "\n";
+    }
+
+    private String runScript(String script) throws IOException {
+        try (Socket socket = new Socket("localhost", terminalServer.getPort())) {
+            socket.getOutputStream().write(script.getBytes(StandardCharsets.UTF_8));
+            socket.getOutputStream().flush();
+            return new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        }
+    }
+
+    private static void readUntil(InputStream in, String suffix) throws IOException {
+        StringBuilder read = new StringBuilder();
+        while (!read.toString().endsWith(suffix)) {
+            int c = in.read();
+            if (c < 0) {
+                throw new IOException("Terminal closed after: " + read);
+            }
+            read.append((char) c);
+        }
+    }
+}
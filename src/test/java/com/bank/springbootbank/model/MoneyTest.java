@@ -0,0 +1,42 @@
+package com.bank.springbootbank.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+    @Test
+    void convertsWholeCentsExactlyAndRejectsFractions() {
+        assertEquals(125_050, Money.of(new BigDecimal("1250.5")).cents());
+        assertEquals(Money.of("10"), Money.of(new BigDecimal("10.000")));
+        assertEquals(new BigDecimal("-0.05"), Money.ofCents(-5).toBigDecimal());
+        assertSame(Money.ZERO, Money.of("0.00"));
+
+        RuntimeException fraction = assertThrows(RuntimeException.class, () -> Money.of("0.001"));
+        assertEquals("Amount must be in whole cents and within range", fraction.getMessage());
+        assertThrows(RuntimeException.class, () -> Money.of("1e30"));
+    }
+
+    @Test
+    void arithmeticIsExact() {
+        Money balance = Money.of("100.10");
+        assertEquals(Money.of("100.30"), balance.plus(Money.of("0.20")));
+        assertEquals(Money.of("-0.90"), balance.minus(Money.of("101")));
+        assertTrue(balance.isLessThan(Money.of("100.11")));
+        assertTrue(balance.isAtLeast(Money.of("100.10")));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)));
+    }
+
+    @Test
+    void printsLikeTheDecimalColumn() {
+        assertEquals("1250.00", Money.of("1250").toString());
+        assertEquals("-0.05", Money.ofCents(-5).toString());
+        assertEquals("0.10", Money.ofCents(10).toString());
+        assertEquals(Money.of("7.07").toBigDecimal().toPlainString(), Money.of("7.07").toString());
+    }
+}
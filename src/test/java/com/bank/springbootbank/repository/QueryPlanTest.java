@@ -0,0 +1,140 @@
+package com.bank.springbootbank.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fails when a hot query in AccountRepository, TransactionRepository or LedgerEntryRepository stops using an index.
+ * Each repository method is called once and the SQL Hibernate generated for it is captured with a
+ * StatementInspector, then run through EXPLAIN. H2 marks a full table scan with "tableScan" in its output.
+ * H2 also indexes foreign keys on its own (PostgreSQL doesn't), so the migration-managed
+ * indexes are checked by name as well.
+ */
+@SpringBootTest
+class QueryPlanTest {
+    private static final LocalDateTime CURSOR = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @TestConfiguration
+    static class CapturedSqlConfig {
+        @Bean
+        CapturedSql capturedSql() {
+            return new CapturedSql();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer capturedSqlInspector(CapturedSql capturedSql) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, capturedSql);
+        }
+    }
+
+    // Records the statements Hibernate prepares while a test is watching, passes them on unchanged
+    static class CapturedSql implements StatementInspector {
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+        private volatile boolean recording;
+
+        @Override
+        public String inspect(String sql) {
+            if (recording) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+
+        String capture(Runnable call) {
+            statements.clear();
+            recording = true;
+            try {
+                call.run();
+            } finally {
+                recording = false;
+            }
+            assertEquals(1, statements.size(), () -> "expected a single statement, got " + statements);
+            return statements.get(0);
+        }
+    }
+
+    @Autowired
+    private CapturedSql capturedSql;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findByAccountNumberUsesUniqueIndex() {
+        assertUsesIndex(capturedSql.capture(() -> accountRepository.findByAccountNumber("000000000001")),
+                "000000000001");
+    }
+
+    @Test
+    void findByUserIdUsesUserIndex() {
+        assertIndexExists("ACCOUNTS", "IDX_ACCOUNTS_USER_ID");
+        assertUsesIndex(capturedSql.capture(() -> accountRepository.findByUserId(1L)), 1L);
+    }
+
+    @Test
+    void historyPagesUseLedgerAccountIndex() {
+        assertIndexExists("LEDGER_ENTRIES", "IDX_LEDGER_ENTRIES_ACCOUNT_POSTED");
+        assertUsesIndex(capturedSql.capture(() -> ledgerEntryRepository.findLatestByAccountId(1L, Limit.of(21))),
+                1L, 21);
+        // :postedAt appears twice in the keyset condition, each occurrence is its own JDBC parameter
+        assertUsesIndex(capturedSql.capture(() -> ledgerEntryRepository.findByAccountIdBefore(1L, CURSOR, 100L, Limit.of(21))),
+                1L, CURSOR, CURSOR, 100L, 21);
+    }
+
+    @Test
+    void balanceRebuildUsesLedgerAccountIndex() {
+        assertUsesIndex(capturedSql.capture(() -> ledgerEntryRepository.sumByAccountId(1L)), 1L);
+    }
+
+    @Test
+    void deleteByAccountUsesAccountDateIndex() {
+        String sql = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return capturedSql.capture(() -> transactionRepository.deleteByAccountId(1L));
+        });
+        assertUsesIndex(sql, 1L);
+    }
+
+    private void assertIndexExists(String table, String index) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.indexes where table_name = ? and index_name = ?",
+                Integer.class, table, index);
+        assertTrue(count != null && count > 0, () -> "missing index " + index + " on " + table);
+    }
+
+    private void assertUsesIndex(String sql, Object... parameters) {
+        assertEquals(parameters.length, sql.chars().filter(c -> c == '?').count(),
+                () -> "parameters don't match the generated SQL: " + sql);
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, parameters));
+        assertFalse(plan.contains("tableScan"), () -> "full table scan for: " + sql + "\n" + plan);
+    }
+}
@@ -0,0 +1,144 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.springbootbank.dto.AccountSummary;
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.Admin;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.repository.AccountRepository;
+import com.bank.springbootbank.repository.LedgerEntryRepository;
+import com.bank.springbootbank.repository.UserRepository;
+
+@SpringBootTest
+class AdminServiceTest {
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Statistics statistics;
+
+    @Test
+    void deleteUserIsAFixedNumberOfStatements() {
+        User user = bankService.registerUser("cascade", "secret", "Cascade User", "1 Main St", "555-0100", "cascade@bank.com");
+        List<Account> accounts = bankService.createBothAccounts(user);
+        for (Account account : accounts) {
+            for (int i = 0; i < 30; i++) {
+                bankService.deposit(account.getAccountNumber(), BigDecimal.TEN);
+            }
+        }
+
+        statistics.clear();
+        adminService.deleteUser(user.getId());
+
+        // delete ledger lines, detach the other accounts' lines, delete transactions, delete accounts, delete user
+        assertEquals(5, statistics.getPrepareStatementCount());
+        assertFalse(userRepository.existsById(user.getId()));
+        assertTrue(accountRepository.findByUserId(user.getId()).isEmpty());
+    }
+
+    @Test
+    void deleteAccountLeavesTheOtherAccount() {
+        User user = bankService.registerUser("cascade2", "secret", "Cascade User", "1 Main St", "555-0100", "cascade2@bank.com");
+        List<Account> accounts = bankService.createBothAccounts(user);
+        bankService.deposit(accounts.get(0).getAccountNumber(), BigDecimal.TEN);
+
+        statistics.clear();
+        adminService.deleteAccount(accounts.get(0).getId());
+
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(List.of(accounts.get(1).getId()),
+                accountRepository.findByUserId(user.getId()).stream().map(Account::getId).toList());
+    }
+
+    @Test
+    void deletingTheSenderKeepsTheReceiversLedgerInStep() {
+        User sender = bankService.registerUser("sender", "secret", "Sender", "1 Main St", "555-0100", "sender@bank.com");
+        List<Account> senderAccounts = bankService.createBothAccounts(sender);
+        User receiver = bankService.registerUser("receiver", "secret", "Receiver", "1 Main St", "555-0100", "receiver@bank.com");
+        Account received = bankService.createAccount(receiver, 1);
+        Account other = bankService.createAccount(receiver, 2);
+        bankService.deposit(senderAccounts.get(0).getAccountNumber(), new BigDecimal("100.00"));
+        bankService.deposit(senderAccounts.get(1).getAccountNumber(), new BigDecimal("100.00"));
+        bankService.deposit(other.getAccountNumber(), new BigDecimal("100.00"));
+        bankService.transfer(senderAccounts.get(0).getAccountNumber(), received.getAccountNumber(), new BigDecimal("40.00"));
+        bankService.transfer(other.getAccountNumber(), senderAccounts.get(1).getAccountNumber(), new BigDecimal("10.00"));
+        bankService.transfer(senderAccounts.get(1).getAccountNumber(), other.getAccountNumber(), new BigDecimal("5.00"));
+
+        adminService.deleteAccount(senderAccounts.get(0).getId());
+        assertLedgerMatchesBalance(received, "40.00");
+        adminService.deleteUser(sender.getId());
+        assertLedgerMatchesBalance(received, "40.00");
+        assertLedgerMatchesBalance(other, "95.00");
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from ledger_entries e where e.account_id is null "
+                + "and e.transaction_id is null", Integer.class), "no orphaned bank-side lines");
+    }
+
+    private void assertLedgerMatchesBalance(Account account, String expected) {
+        BigDecimal balance = bankService.getAccount(account.getAccountNumber()).getBalance().toBigDecimal();
+        assertEquals(0, new BigDecimal(expected).compareTo(balance));
+        assertEquals(0, balance.compareTo(ledgerEntryRepository.sumByAccountId(account.getId())));
+    }
+
+    @Test
+    void listingAccountsIsASingleQuery() {
+        User user = bankService.registerUser("listing", "secret", "Listing User", "1 Main St", "555-0100", "listing@bank.com");
+        bankService.createBothAccounts(user);
+
+        statistics.clear();
+        List<AccountSummary> accounts = adminService.getAllAccounts();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(accounts.stream().anyMatch(account -> "listing".equals(account.ownerUsername())));
+    }
+
+    @Test
+    void deletingUnknownUserFails() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> adminService.deleteUser(-1L));
+        assertEquals("User not found", e.getMessage());
+    }
+
+    @Test
+    void adminLoginUpgradesAPlaintextPassword() {
+        Admin admin = new Admin();
+        admin.setUsername("legacy-admin");
+        admin.setPassword("placeholder");
+        admin.setEmail("legacy-admin@bank.com");
+        admin.setFullName("Legacy Admin");
+        Long adminId = adminService.createInitialAdmin(admin).getId();
+        jdbcTemplate.update("update admins set password = ? where id = ?", "legacy", adminId);
+
+        assertTrue(adminService.login("legacy-admin", "wrong").isEmpty());
+        assertTrue(adminService.login("legacy-admin", "legacy").isPresent());
+        assertTrue(PasswordHasher.isHash(
+                jdbcTemplate.queryForObject("select password from admins where id = ?", String.class, adminId)));
+        assertTrue(adminService.login("legacy-admin", "legacy").isPresent());
+    }
+}
@@ -0,0 +1,113 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.Money;
+import com.bank.springbootbank.model.User;
+
+@SpringBootTest
+class ApyRateEngineTest {
+    @Autowired
+    private ApyRateEngine rateEngine;
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private ApyTierSource tierSource;
+
+    @Autowired
+    private ApyRetierService retierService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void looksUpTheBandABalanceFallsIn() {
+        LocalDate today = LocalDate.now();
+        assertApy("0.02", rateEngine.apyFor("SAVINGS", Money.ZERO, today));
+        assertApy("0.02", rateEngine.apyFor("SAVINGS", Money.of("999.99"), today));
+        assertApy("0.03", rateEngine.apyFor("SAVINGS", Money.of("1000"), today));
+        assertApy("0.04", rateEngine.apyFor("SAVINGS", Money.of("9999.99"), today));
+        assertApy("0.05", rateEngine.apyFor("SAVINGS", Money.of("25000"), today));
+        assertApy("0", rateEngine.apyFor("CHECKING", Money.of("25000"), today));
+        assertApy("0", rateEngine.apyFor("SAVINGS", Money.of("25000"), LocalDate.of(1999, 12, 31)));
+    }
+
+    @Test
+    void newTableTakesEffectOnReloadAndRetiersStoredRates() {
+        User user = bankService.registerUser("tiered", "secret", "Tiered", "1 Main St", "555-0100", "tiered@bank.com");
+        Account small = bankService.createAccount(user, 2);
+        Account large = bankService.createAccount(user, 2);
+        bankService.deposit(small.getAccountNumber(), new BigDecimal("500"));
+        bankService.deposit(large.getAccountNumber(), new BigDecimal("1000"));
+        bankService.deposit(large.getAccountNumber(), new BigDecimal("20000")); // keeps the 3% of its first deposit
+
+        LocalDate today = LocalDate.now();
+        LocalDate nextMonth = today.plusMonths(1);
+        try {
+            insertTier(today, "0", "0.01");
+            insertTier(today, "20000", "0.045");
+            insertTier(nextMonth, "0", "0.015");
+            rateEngine.reload();
+
+            assertApy("0.01", rateEngine.apyFor("SAVINGS", Money.of("19999.99"), today));
+            assertApy("0.045", rateEngine.apyFor("SAVINGS", Money.of("20000"), today));
+            assertApy("0.015", rateEngine.apyFor("SAVINGS", Money.of("20000"), nextMonth));
+
+            // Stored rates follow today's table by current balance, the future table doesn't apply yet
+            assertApy("0.01", bankService.getAccount(small.getAccountNumber()).getApy());
+            assertApy("0.045", bankService.getAccount(large.getAccountNumber()).getApy());
+        } finally {
+            jdbcTemplate.update("delete from apy_tiers where effective_from >= ?", today);
+            rateEngine.reload();
+        }
+        assertApy("0.05", bankService.getAccount(large.getAccountNumber()).getApy());
+    }
+
+    @Test
+    void tiersChangedWhileDownAreAppliedAfterAStart() {
+        User user = bankService.registerUser("restarted", "secret", "Restarted", "1 Main St", "555-0100", "restarted@bank.com");
+        Account savings = bankService.createAccount(user, 2);
+        bankService.deposit(savings.getAccountNumber(), new BigDecimal("1000"));
+
+        // As if the rates had been different when the application last ran
+        jdbcTemplate.update("update apy_tiers_applied set rates = 'stale' where account_type = 'SAVINGS'");
+        jdbcTemplate.update("update accounts set apy = 0.07 where id = ?", savings.getId());
+
+        ApyRateEngine restarted = new ApyRateEngine(tierSource, retierService);
+        restarted.retierChangedSinceLastRun();
+
+        assertApy("0.03", jdbcTemplate.queryForObject("select apy from accounts where id = ?", BigDecimal.class, savings.getId()));
+        assertEquals(rateEngine.tableOn("SAVINGS", LocalDate.now()).rates(), retierService.appliedRates().get("SAVINGS"));
+    }
+
+    @Test
+    void configuredTiersParse() {
+        List<ApyTier> tiers = PropertiesApyTierSource.parse("SAVINGS:0:0.02, SAVINGS:1000:0.03:2026-01-01");
+        assertEquals(2, tiers.size());
+        assertEquals(LocalDate.of(2026, 1, 1), tiers.get(1).effectiveFrom());
+        assertEquals(Money.of("1000"), tiers.get(1).minimumBalance());
+        assertThrows(IllegalArgumentException.class, () -> PropertiesApyTierSource.parse("SAVINGS:0"));
+    }
+
+    private void insertTier(LocalDate effectiveFrom, String minimum, String apy) {
+        jdbcTemplate.update("insert into apy_tiers (account_type, effective_from, minimum_balance, apy) values (?, ?, ?, ?)",
+                "SAVINGS", effectiveFrom, new BigDecimal(minimum), new BigDecimal(apy));
+    }
+
+    private static void assertApy(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> "expected " + expected + " but was " + actual);
+    }
+}
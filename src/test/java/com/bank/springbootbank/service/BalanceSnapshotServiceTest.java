@@ -0,0 +1,78 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.service.BalanceSnapshotService.SnapshotReport;
+
+@SpringBootTest
+class BalanceSnapshotServiceTest {
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void balanceAtAnyTimeIsSnapshotPlusTail() throws InterruptedException {
+        Account checking = bankService.createAccount(newUser(), 1);
+        String number = checking.getAccountNumber();
+        LocalDateTime opened = tick();
+        bankService.deposit(number, new BigDecimal("100.00"));
+        LocalDateTime afterFirst = tick();
+        bankService.deposit(number, new BigDecimal("50.00"));
+        LocalDateTime afterSecond = tick();
+
+        SnapshotReport report = balanceSnapshotService.takeSnapshots(afterSecond);
+        assertTrue(report.snapshotsWritten() >= 1);
+        assertEquals(0, new BigDecimal("150").compareTo(jdbcTemplate.queryForObject(
+                "select balance from balance_snapshots where account_id = ?", BigDecimal.class, checking.getId())));
+        assertEquals(0, balanceSnapshotService.takeSnapshots(afterSecond).snapshotsWritten(), "cutoff already taken");
+
+        bankService.withdraw(number, new BigDecimal("30.00"));
+        LocalDateTime afterWithdrawal = tick();
+        bankService.transfer(number, bankService.createAccount(newUser(), 1).getAccountNumber(), new BigDecimal("20.00"));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(bankService.getBalanceAt(number, opened)));
+        assertEquals(0, new BigDecimal("100").compareTo(bankService.getBalanceAt(number, afterFirst)));
+        assertEquals(0, new BigDecimal("150").compareTo(bankService.getBalanceAt(number, afterSecond)));
+        assertEquals(0, new BigDecimal("120").compareTo(bankService.getBalanceAt(number, afterWithdrawal)));
+        assertEquals(0, new BigDecimal("100").compareTo(bankService.getBalanceAt(number, LocalDateTime.now())));
+
+        // The next run starts from the previous snapshot
+        balanceSnapshotService.takeSnapshots(tick());
+        assertEquals(0, new BigDecimal("100").compareTo(jdbcTemplate.queryForObject(
+                "select balance from balance_snapshots where account_id = ? order by as_of desc limit 1",
+                BigDecimal.class, checking.getId())));
+    }
+
+    // Keeps the captured times clear of the timestamps of the postings around them
+    private static LocalDateTime tick() throws InterruptedException {
+        Thread.sleep(5);
+        LocalDateTime now = LocalDateTime.now();
+        Thread.sleep(5);
+        return now;
+    }
+
+    private User newUser() {
+        int n = USERS.incrementAndGet();
+        return bankService.registerUser("snapshot" + n, "secret", "Snapshot User " + n,
+                "1 Main St", "555-0100", "snapshot" + n + "@bank.com");
+    }
+}
@@ -0,0 +1,98 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.User;
+
+@SpringBootTest
+class BankServiceConcurrencyTest {
+    private static final Logger log = LoggerFactory.getLogger(BankServiceConcurrencyTest.class);
+    private static final int ACCOUNTS = 8;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 250;
+    private static final long OPENING_BALANCE = 10_000;
+
+    @Autowired
+    private BankService bankService;
+
+    @Test
+    void concurrentTransfersDoNotLoseUpdates() throws Exception {
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            User user = bankService.registerUser("stress" + i, "secret", "Stress User " + i,
+                    "1 Main St", "555-0100", "stress" + i + "@bank.com");
+            Account account = bankService.createAccount(user, 1);
+            bankService.deposit(account.getAccountNumber(), BigDecimal.valueOf(OPENING_BALANCE));
+            accountNumbers.add(account.getAccountNumber());
+        }
+
+        // Net movement per account, recorded only for transfers that committed
+        AtomicLongArray expectedDelta = new AtomicLongArray(ACCOUNTS);
+        AtomicInteger committed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    long amount = 1 + random.nextInt(50);
+                    try {
+                        bankService.transfer(accountNumbers.get(from), accountNumbers.get(to), BigDecimal.valueOf(amount));
+                        expectedDelta.addAndGet(from, -amount);
+                        expectedDelta.addAndGet(to, amount);
+                        committed.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        if (!"Insufficient funds".equals(e.getMessage())) {
+                            throw e;
+                        }
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.MINUTES), "stress run did not finish");
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            BigDecimal balance = bankService.getAccount(accountNumbers.get(i)).getBalance().toBigDecimal();
+            assertEquals(0, BigDecimal.valueOf(OPENING_BALANCE + expectedDelta.get(i)).compareTo(balance),
+                    "lost update on account " + accountNumbers.get(i));
+            total = total.add(balance);
+        }
+        assertEquals(0, BigDecimal.valueOf(OPENING_BALANCE * ACCOUNTS).compareTo(total));
+        assertEquals(THREADS * TRANSFERS_PER_THREAD, committed.get() + rejected.get());
+
+        log.info("Transfers: {} committed, {} rejected in {} s ({} transfers/s)",
+                committed.get(), rejected.get(), Math.round(seconds * 100) / 100.0, Math.round(committed.get() / seconds));
+    }
+}
@@ -0,0 +1,138 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.springbootbank.dto.TransactionPage;
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.User;
+
+@SpringBootTest
+class BankServiceTest {
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private Statistics statistics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void firstSavingsDepositSetsApyTierInTheSameUpdate() {
+        Account savings = bankService.createAccount(newUser(), 2);
+
+        bankService.deposit(savings.getAccountNumber(), new BigDecimal("5000.00"));
+        bankService.deposit(savings.getAccountNumber(), new BigDecimal("20000.00"));
+
+        Account reloaded = bankService.getAccount(savings.getAccountNumber());
+        assertEquals(0, new BigDecimal("25000").compareTo(reloaded.getBalance().toBigDecimal()));
+        assertEquals(0, new BigDecimal("0.04").compareTo(reloaded.getApy())); // later deposits keep the first tier
+    }
+
+    @Test
+    void withdrawRejectsOverdraftAndUnknownAccount() {
+        Account checking = bankService.createAccount(newUser(), 1);
+        bankService.deposit(checking.getAccountNumber(), new BigDecimal("100"));
+
+        RuntimeException overdraft = assertThrows(RuntimeException.class,
+                () -> bankService.withdraw(checking.getAccountNumber(), new BigDecimal("100.01")));
+        assertEquals("Insufficient funds", overdraft.getMessage());
+
+        RuntimeException missing = assertThrows(RuntimeException.class,
+                () -> bankService.withdraw("0000000000", BigDecimal.ONE));
+        assertEquals("Account not found", missing.getMessage());
+
+        assertEquals(0, new BigDecimal("60").compareTo(
+                bankService.withdraw(checking.getAccountNumber(), new BigDecimal("40")).getAccount().getBalance().toBigDecimal()));
+    }
+
+    @Test
+    void historyPagesWalkTheWholeHistoryNewestFirst() {
+        Account checking = bankService.createAccount(newUser(), 1);
+        for (int i = 1; i <= 25; i++) {
+            bankService.deposit(checking.getAccountNumber(), BigDecimal.valueOf(i));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        TransactionPage page = bankService.getTransactionHistory(checking.getAccountNumber(), 10, null);
+        int pages = 1;
+        page.transactions().forEach(t -> seen.add(t.id()));
+        while (page.hasMore()) {
+            page = bankService.getTransactionHistory(checking.getAccountNumber(), 10, page.nextPageToken());
+            page.transactions().forEach(t -> seen.add(t.id()));
+            pages++;
+        }
+        assertEquals(3, pages);
+        assertNull(page.nextPageToken());
+
+        List<Long> exported = new ArrayList<>();
+        long count = bankService.exportTransactionHistory(checking.getAccountNumber(), t -> exported.add(t.id()));
+        assertEquals(25, count);
+        assertEquals(exported, seen);
+        assertTrue(seen.get(0) > seen.get(24));
+    }
+
+    @Test
+    void cachedAccountIsEvictedWhenABalanceChangeCommits() {
+        User user = newUser();
+        Account checking = bankService.createAccount(user, 1);
+        bankService.getAccount(checking.getAccountNumber());
+        bankService.getUserAccounts(user);
+
+        statistics.clear();
+        bankService.getAccount(checking.getAccountNumber());
+        bankService.getUserAccounts(user);
+        assertEquals(0, statistics.getPrepareStatementCount(), "served from cache");
+
+        bankService.deposit(checking.getAccountNumber(), new BigDecimal("12.50"));
+        assertEquals(0, new BigDecimal("12.50").compareTo(bankService.getAccount(checking.getAccountNumber()).getBalance().toBigDecimal()));
+        assertEquals(0, new BigDecimal("12.50").compareTo(bankService.getUserAccounts(user).get(0).getBalance().toBigDecimal()));
+
+        // A failed withdrawal rolls back and must not evict or change anything
+        assertThrows(RuntimeException.class, () -> bankService.withdraw(checking.getAccountNumber(), new BigDecimal("100")));
+        assertEquals(0, new BigDecimal("12.50").compareTo(bankService.getAccount(checking.getAccountNumber()).getBalance().toBigDecimal()));
+    }
+
+    @Test
+    void loginChecksHashesAndUpgradesPlaintextPasswords() {
+        User user = newUser();
+        String stored = jdbcTemplate.queryForObject("select password from users where id = ?", String.class, user.getId());
+        assertTrue(PasswordHasher.isHash(stored), "registration stores a bcrypt hash");
+        assertEquals(user.getId(), bankService.login(user.getUsername(), "secret").getId());
+
+        RuntimeException wrong = assertThrows(RuntimeException.class, () -> bankService.login(user.getUsername(), "Secret"));
+        assertEquals("Invalid username or password", wrong.getMessage());
+        RuntimeException unknown = assertThrows(RuntimeException.class, () -> bankService.login("nobody-" + user.getId(), "secret"));
+        assertEquals("Invalid username or password", unknown.getMessage());
+
+        // A row from before hashing still logs in once, and holds a hash afterwards
+        jdbcTemplate.update("update users set password = ? where id = ?", "legacy-secret", user.getId());
+        assertThrows(RuntimeException.class, () -> bankService.login(user.getUsername(), "legacy-secre"));
+        assertEquals(user.getId(), bankService.login(user.getUsername(), "legacy-secret").getId());
+        String upgraded = jdbcTemplate.queryForObject("select password from users where id = ?", String.class, user.getId());
+        assertTrue(PasswordHasher.isHash(upgraded));
+        assertEquals(user.getId(), bankService.login(user.getUsername(), "legacy-secret").getId());
+    }
+
+    private User newUser() {
+        int n = USERS.incrementAndGet();
+        return bankService.registerUser("service" + n, "secret", "Service User " + n,
+                "1 Main St", "555-0100", "service" + n + "@bank.com");
+    }
+}
@@ -0,0 +1,94 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.TransactionType;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.service.BulkPostingService.Posting;
+import com.bank.springbootbank.service.BulkPostingService.Report;
+
+@SpringBootTest
+class BulkPostingServiceTest {
+    private static final Logger log = LoggerFactory.getLogger(BulkPostingServiceTest.class);
+    private static final int ACCOUNTS = 20;
+    private static final int BULK_POSTINGS = 5_000;
+    private static final int SINGLE_POSTINGS = 500;
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private BulkPostingService bulkPostingService;
+
+    @Test
+    void bulkPostingIsFasterThanOneAtATime() {
+        List<String> accountNumbers = openAccounts("bulk");
+
+        long started = System.nanoTime();
+        for (int i = 0; i < SINGLE_POSTINGS; i++) {
+            bankService.deposit(accountNumbers.get(i % ACCOUNTS), BigDecimal.ONE);
+        }
+        double singleRowsPerSecond = SINGLE_POSTINGS / ((System.nanoTime() - started) / 1_000_000_000.0);
+
+        Report report = bulkPostingService.post(IntStream.range(0, BULK_POSTINGS)
+                .mapToObj(i -> new Posting(accountNumbers.get(i % ACCOUNTS), TransactionType.DEPOSIT, BigDecimal.ONE, "ACH credit")), 500);
+
+        assertEquals(BULK_POSTINGS, report.postingsCommitted());
+        assertTrue(report.failedChunks().isEmpty());
+        BigDecimal expected = BigDecimal.valueOf((SINGLE_POSTINGS + BULK_POSTINGS) / ACCOUNTS);
+        for (String accountNumber : accountNumbers) {
+            assertEquals(0, expected.compareTo(bankService.getAccount(accountNumber).getBalance().toBigDecimal()));
+        }
+
+        log.info("Postings: one-at-a-time {} rows/s, bulk {} rows/s",
+                Math.round(singleRowsPerSecond), Math.round(report.rowsPerSecond()));
+        assertTrue(report.rowsPerSecond() > singleRowsPerSecond,
+                "bulk " + report.rowsPerSecond() + " rows/s, one-at-a-time " + singleRowsPerSecond + " rows/s");
+    }
+
+    @Test
+    void failingChunkIsRolledBackAndReported() {
+        List<String> accountNumbers = openAccounts("chunk");
+        String account = accountNumbers.get(0);
+
+        Report report = bulkPostingService.post(Stream.of(
+                new Posting(account, TransactionType.DEPOSIT, BigDecimal.TEN, null),
+                new Posting(account, TransactionType.DEPOSIT, BigDecimal.TEN, null),
+                new Posting(account, TransactionType.DEPOSIT, BigDecimal.TEN, null),
+                new Posting("9999999999", TransactionType.DEPOSIT, BigDecimal.TEN, null),
+                new Posting(account, TransactionType.WITHDRAWAL, BigDecimal.ONE, null)), 2);
+
+        assertEquals(3, report.chunks().size());
+        assertEquals(3, report.postingsCommitted());
+        assertEquals(1, report.failedChunks().size());
+        assertFalse(report.chunks().get(1).committed());
+        assertEquals("Account not found: 9999999999", report.chunks().get(1).failure());
+        assertEquals(0, new BigDecimal("19").compareTo(bankService.getAccount(account).getBalance().toBigDecimal()));
+    }
+
+    private List<String> openAccounts(String prefix) {
+        User user = bankService.registerUser(prefix + "-owner", "secret", "Bulk Owner",
+                "1 Main St", "555-0100", prefix + "@bank.com");
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = bankService.createAccount(user, 1);
+            accountNumbers.add(account.getAccountNumber());
+        }
+        return accountNumbers;
+    }
+}
@@ -0,0 +1,109 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.service.CustomerImportService.ImportReport;
+import com.bank.springbootbank.service.CustomerImportService.Rejected;
+
+@SpringBootTest
+class CustomerImportServiceTest {
+    @Autowired
+    private CustomerImportService customerImportService;
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importsValidLinesAndReportsEveryRejectedOne() throws IOException {
+        bankService.registerUser("import-taken", "secret", "Taken", "1 Main St", "555-0100", "import-taken@bank.com");
+        String migratedHash = passwordHasher.hash("migrated");
+        String csv = """
+                username,password,full_name,address,phone_number,email,accounts
+                import-ann,secret,Ann Import,"12 High St, Springfield",555-0101,import-ann@bank.com,CHECKING;SAVINGS
+                import-bob,%s,Bob Import,3 Low Rd,555-0102,import-bob@bank.com,savings
+                import-ann,secret,Ann Again,1 Main St,555-0103,import-ann2@bank.com,CHECKING
+
+                import-taken,secret,Taken Again,1 Main St,555-0104,import-taken2@bank.com,
+                import-cid,secret,Cid Import,1 Main St,555-0105,import-ann@bank.com,CHECKING
+                import-dee,secret,Dee Import,1 Main St,555-0106,not-an-email,CHECKING
+                import-eve,secret,Eve Import,1 Main St,555-0107,import-eve@bank.com,BROKERAGE
+                import-fay,secret,Fay Import,1 Main St
+                import-gus,secret,Gus Import,1 Main St,555-0108,import-gus@bank.com,
+                """.formatted(migratedHash);
+
+        ImportReport report = customerImportService.importCustomers(new BufferedReader(new StringReader(csv)), 2);
+
+        assertEquals(10, report.lines());
+        assertEquals(3, report.usersImported());
+        assertEquals(3, report.accountsOpened());
+        assertEquals(List.of(
+                new Rejected(4, "import-ann", "Username already exists"),
+                new Rejected(6, "import-taken", "Username already exists"),
+                new Rejected(7, "import-cid", "Email already registered"),
+                new Rejected(8, "import-dee", "email is not valid"),
+                new Rejected(9, "import-eve", "Unknown account type: BROKERAGE"),
+                new Rejected(10, "import-fay", "Expected 7 columns, found 4")), report.rejected());
+
+        User ann = bankService.login("import-ann", "secret");
+        assertEquals("12 High St, Springfield", ann.getAddress());
+        assertEquals(List.of("CHECKING", "SAVINGS"),
+                bankService.getUserAccounts(ann).stream().map(Account::getAccountType).sorted().toList());
+
+        // A hash exported by the old system is kept, the customer's password keeps working
+        assertEquals(migratedHash, jdbcTemplate.queryForObject(
+                "select password from users where username = 'import-bob'", String.class));
+        assertEquals("import-bob", bankService.login("import-bob", "migrated").getUsername());
+        assertEquals(0, bankService.getUserAccounts(bankService.login("import-gus", "secret")).size());
+    }
+
+    @Test
+    void duplicatesWithinOneChunkKeepTheFirstLine() throws IOException {
+        String csv = """
+                username,password,full_name,address,phone_number,email,accounts
+                import-hal,secret,Hal Import,1 Main St,555-0109,import-hal@bank.com,CHECKING
+                import-hal,secret,Hal Twin,1 Main St,555-0110,import-hal2@bank.com,CHECKING
+                import-ida,secret,Ida Import,1 Main St,555-0111,import-hal@bank.com,CHECKING
+                """;
+
+        ImportReport report = customerImportService.importCustomers(new BufferedReader(new StringReader(csv)), 100);
+
+        assertEquals(1, report.usersImported());
+        assertEquals(List.of(
+                new Rejected(3, "import-hal", "Username already used on line 2"),
+                new Rejected(4, "import-ida", "Email already used on line 2")), report.rejected());
+        assertEquals("Hal Import", bankService.login("import-hal", "secret").getFullName());
+    }
+
+    @Test
+    void rejectsAFileWithoutTheHeader() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> customerImportService.importCustomers(
+                new BufferedReader(new StringReader("import-x,secret,X,1 Main St,555,x@bank.com,\n")), 10));
+        assertEquals("Import file must start with the header "
+                + "username,password,full_name,address,phone_number,email,accounts", e.getMessage());
+    }
+
+    @Test
+    void parsesQuotedFields() {
+        assertEquals(List.of("a", "b, c", "say \"hi\"", ""), CustomerImportService.parseCsvLine("a,\"b, c\",\"say \"\"hi\"\"\","));
+        assertThrows(IllegalArgumentException.class, () -> CustomerImportService.parseCsvLine("a,\"b"));
+    }
+}
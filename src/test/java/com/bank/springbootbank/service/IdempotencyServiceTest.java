@@ -0,0 +1,162 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.IdempotencyKey;
+import com.bank.springbootbank.model.Transaction;
+import com.bank.springbootbank.model.TransactionType;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.repository.IdempotencyKeyRepository;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyServiceTest.class);
+    private static final AtomicInteger USERS = new AtomicInteger();
+    private static final int THREADS = 16;
+    private static final int REPLAYS = 10_000;
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Test
+    void retriedRequestsReplayTheFirstTransaction() {
+        Account checking = bankService.createAccount(newUser(), 1);
+        Account savings = bankService.createAccount(newUser(), 2);
+        String depositKey = UUID.randomUUID().toString();
+        String transferKey = UUID.randomUUID().toString();
+
+        Transaction deposit = bankService.deposit(checking.getAccountNumber(), new BigDecimal("100.00"), depositKey);
+        Transaction replayed = bankService.deposit(checking.getAccountNumber(), new BigDecimal("100"), depositKey);
+        assertEquals(deposit.getId(), replayed.getId());
+
+        Transaction transfer = bankService.transfer(checking.getAccountNumber(), savings.getAccountNumber(), BigDecimal.TEN, transferKey);
+        assertEquals(transfer.getId(), bankService.transfer(checking.getAccountNumber(), savings.getAccountNumber(),
+                BigDecimal.TEN, transferKey).getId());
+
+        assertEquals(0, new BigDecimal("90").compareTo(bankService.getAccount(checking.getAccountNumber()).getBalance().toBigDecimal()));
+        assertEquals(0, BigDecimal.TEN.compareTo(bankService.getAccount(savings.getAccountNumber()).getBalance().toBigDecimal()));
+        assertEquals(transfer.getId(), idempotencyKeyRepository.findById(transferKey).orElseThrow().getTransactionId());
+
+        RuntimeException reused = assertThrows(RuntimeException.class,
+                () -> bankService.withdraw(checking.getAccountNumber(), BigDecimal.ONE, depositKey));
+        assertEquals("Idempotency key was already used for a different request", reused.getMessage());
+    }
+
+    @Test
+    void failedRequestDoesNotUseUpItsKey() {
+        Account checking = bankService.createAccount(newUser(), 1);
+        String key = UUID.randomUUID().toString();
+
+        assertThrows(RuntimeException.class, () -> bankService.withdraw(checking.getAccountNumber(), BigDecimal.TEN, key));
+        assertFalse(idempotencyKeyRepository.existsById(key));
+
+        bankService.deposit(checking.getAccountNumber(), BigDecimal.TEN);
+        Transaction withdrawal = bankService.withdraw(checking.getAccountNumber(), BigDecimal.TEN, key);
+        assertEquals(TransactionType.WITHDRAWAL, withdrawal.getTransactionType());
+        assertEquals(0, BigDecimal.ZERO.compareTo(bankService.getAccount(checking.getAccountNumber()).getBalance().toBigDecimal()));
+    }
+
+    @Test
+    void lostClaimWithoutAStoredResultIsNotRunAgain() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> idempotencyService.execute(key, "DEPOSIT|x||1", () -> {
+                    runs.incrementAndGet();
+                    throw new DataIntegrityViolationException("constraint violated by the posting");
+                }));
+        assertEquals("constraint violated by the posting", e.getMessage());
+        assertEquals(1, runs.get());
+        assertFalse(idempotencyKeyRepository.existsById(key));
+    }
+
+    @Test
+    void sameKeyOnManyThreadsPostsOnce() throws Exception {
+        Account checking = bankService.createAccount(newUser(), 1);
+        String key = UUID.randomUUID().toString();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return bankService.deposit(checking.getAccountNumber(), new BigDecimal("25.00"), key).getId();
+                }));
+            }
+            start.countDown();
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (Future<Long> result : results) {
+            ids.add(result.get());
+        }
+        assertEquals(1, ids.size());
+        assertEquals(0, new BigDecimal("25").compareTo(bankService.getAccount(checking.getAccountNumber()).getBalance().toBigDecimal()));
+
+        // Replays of a key this node has seen are served from memory
+        long started = System.nanoTime();
+        for (int i = 0; i < REPLAYS; i++) {
+            bankService.deposit(checking.getAccountNumber(), new BigDecimal("25.00"), key);
+        }
+        double microsPerReplay = (System.nanoTime() - started) / 1_000.0 / REPLAYS;
+        log.info("Idempotent replay: {} us", Math.round(microsPerReplay * 10) / 10.0);
+        assertTrue(microsPerReplay < 1_000, "replay took " + microsPerReplay + " us");
+    }
+
+    @Test
+    void expiredKeysArePurged() {
+        Account checking = bankService.createAccount(newUser(), 1);
+        String live = UUID.randomUUID().toString();
+        bankService.deposit(checking.getAccountNumber(), BigDecimal.ONE, live);
+
+        IdempotencyKey expired = new IdempotencyKey();
+        expired.setKey(UUID.randomUUID().toString());
+        expired.setRequestFingerprint("DEPOSIT|" + checking.getAccountNumber() + "||1");
+        expired.setCreatedAt(LocalDateTime.now().minusDays(2));
+        expired.setExpiresAt(LocalDateTime.now().minusDays(1));
+        idempotencyKeyRepository.save(expired);
+
+        idempotencyService.purgeExpiredKeys();
+
+        assertFalse(idempotencyKeyRepository.existsById(expired.getKey()));
+        assertTrue(idempotencyKeyRepository.existsById(live));
+    }
+
+    private User newUser() {
+        int n = USERS.incrementAndGet();
+        return bankService.registerUser("idem" + n, "secret", "Idem User " + n,
+                "1 Main St", "555-0100", "idem" + n + "@bank.com");
+    }
+}
@@ -0,0 +1,89 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.TransactionType;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.service.InterestAccrualService.AccrualReport;
+
+@SpringBootTest
+class InterestAccrualServiceTest {
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private InterestAccrualService interestAccrualService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void accruesOncePerDayAndIsIdempotent() {
+        User user = bankService.registerUser("saver", "secret", "Saver", "1 Main St", "555-0100", "saver@bank.com");
+        List<Account> accounts = bankService.createBothAccounts(user);
+        Account checking = accounts.get(0);
+        Account savings = accounts.get(1);
+        bankService.deposit(checking.getAccountNumber(), new BigDecimal("1000"));
+        bankService.deposit(savings.getAccountNumber(), new BigDecimal("1000")); // 3% tier
+
+        LocalDate today = LocalDate.now();
+        jdbcTemplate.update("update accounts set last_interest_calculation = ? where id in (?, ?)",
+                today.minusDays(30).atTime(15, 0), checking.getId(), savings.getId());
+
+        AccrualReport first = interestAccrualService.accrueInterest(today);
+        AccrualReport second = interestAccrualService.accrueInterest(today);
+
+        // 1000 * 0.03 * 30 / 365 = 2.4657... -> 2.46 paid, the rest carried
+        assertEquals(0, new BigDecimal("1002.46").compareTo(bankService.getAccount(savings.getAccountNumber()).getBalance().toBigDecimal()));
+        assertEquals(0, new BigDecimal("1000").compareTo(bankService.getAccount(checking.getAccountNumber()).getBalance().toBigDecimal()));
+        assertTrue(first.accountsCredited() >= 1);
+        assertEquals(0, first.failedChunks());
+        assertEquals(0, second.accountsScanned(), "second run finds nothing left to accrue");
+        assertEquals(TransactionType.INTEREST, bankService.getTransactionHistory(savings.getAccountNumber(), 1, null)
+                .transactions().get(0).transactionType());
+    }
+
+    @Test
+    void fractionsOfACentAreCarriedIntoLaterRuns() {
+        User user = bankService.registerUser("small-saver", "secret", "Small Saver", "1 Main St", "555-0100", "small-saver@bank.com");
+        List<Account> accounts = bankService.createBothAccounts(user);
+        Account savings = accounts.get(1);
+        // Funded by a transfer, not a first deposit, so no APY was set on it
+        bankService.deposit(accounts.get(0).getAccountNumber(), new BigDecimal("10.00"));
+        bankService.transfer(accounts.get(0).getAccountNumber(), savings.getAccountNumber(), new BigDecimal("10.00"));
+
+        LocalDate today = LocalDate.now();
+        jdbcTemplate.update("update accounts set last_interest_calculation = ? where id = ?",
+                today.minusDays(30).atTime(15, 0), savings.getId());
+        for (int daysAgo = 29; daysAgo >= 0; daysAgo--) {
+            assertEquals(0, interestAccrualService.accrueInterest(today.minusDays(daysAgo)).failedChunks());
+        }
+
+        // 10 * 0.02 / 365 = 0.00054... a day, nothing on any single run. The carried remainder reaches a cent
+        // on day 19 and is paid, days 20-30 accrue on 10.01: 19 * 0.0005479452 - 0.01 + 11 * 0.0005484932
+        Account credited = bankService.getAccount(savings.getAccountNumber());
+        assertEquals(0, new BigDecimal("0.02").compareTo(credited.getApy()));
+        assertEquals(0, new BigDecimal("10.01").compareTo(credited.getBalance().toBigDecimal()));
+        assertEquals(0, new BigDecimal("0.0064443840").compareTo(jdbcTemplate.queryForObject(
+                "select interest_remainder from accounts where id = ?", BigDecimal.class, savings.getId())));
+    }
+
+    @Test
+    void interestIsExactUntilItIsPaid() {
+        assertEquals(new BigDecimal("0.0005479452"), InterestAccrualService.interestFor(new BigDecimal("10.00"), new BigDecimal("0.02"), 1));
+        assertEquals(new BigDecimal("410.9589041096"), InterestAccrualService.interestFor(new BigDecimal("1000000.00"), new BigDecimal("0.05"), 3));
+        assertEquals(BigDecimal.ZERO, InterestAccrualService.interestFor(new BigDecimal("500"), new BigDecimal("0.05"), 0));
+        assertEquals(BigDecimal.ZERO, InterestAccrualService.interestFor(new BigDecimal("500"), null, 30));
+    }
+}
@@ -0,0 +1,86 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.springbootbank.dto.TransactionLine;
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.TransactionType;
+import com.bank.springbootbank.model.User;
+
+@SpringBootTest
+class LedgerServiceTest {
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void transferShowsUpInBothHistories() {
+        Account from = bankService.createAccount(newUser(), 1);
+        Account to = bankService.createAccount(newUser(), 1);
+        bankService.deposit(from.getAccountNumber(), new BigDecimal("100.00"));
+
+        bankService.transfer(from.getAccountNumber(), to.getAccountNumber(), new BigDecimal("40.00"));
+
+        TransactionLine debit = bankService.getTransactionHistory(from.getAccountNumber(), 1, null).transactions().get(0);
+        assertEquals(TransactionType.TRANSFER, debit.transactionType());
+        assertEquals(0, new BigDecimal("-40").compareTo(debit.amount()));
+        assertEquals("Transfer to " + to.getAccountNumber(), debit.description());
+
+        List<TransactionLine> credits = bankService.getTransactionHistory(to.getAccountNumber(), 10, null).transactions();
+        assertEquals(1, credits.size());
+        assertEquals(0, new BigDecimal("40").compareTo(credits.get(0).amount()));
+        assertEquals("Transfer from " + from.getAccountNumber(), credits.get(0).description());
+    }
+
+    @Test
+    void ledgerBalancesEveryTransactionAndMatchesAccountBalances() {
+        Account checking = bankService.createAccount(newUser(), 1);
+        Account savings = bankService.createAccount(newUser(), 2);
+        bankService.deposit(checking.getAccountNumber(), new BigDecimal("500.00"));
+        bankService.withdraw(checking.getAccountNumber(), new BigDecimal("120.50"));
+        bankService.transfer(checking.getAccountNumber(), savings.getAccountNumber(), new BigDecimal("79.50"));
+
+        Integer unbalanced = jdbcTemplate.queryForObject(
+                "select count(*) from (select transaction_id from ledger_entries group by transaction_id " +
+                "having sum(amount) <> 0) unbalanced", Integer.class);
+        assertEquals(0, unbalanced);
+
+        for (Account account : List.of(checking, savings)) {
+            Account reloaded = bankService.getAccount(account.getAccountNumber());
+            assertEquals(0, reloaded.getBalance().toBigDecimal().compareTo(ledgerService.ledgerBalance(reloaded.getId())));
+        }
+        assertEquals(0, new BigDecimal("300").compareTo(ledgerService.ledgerBalance(checking.getId())));
+    }
+
+    @Test
+    void rebuildBalanceRepairsADriftedRunningTotal() {
+        Account checking = bankService.createAccount(newUser(), 1);
+        bankService.deposit(checking.getAccountNumber(), new BigDecimal("75.25"));
+        jdbcTemplate.update("update accounts set balance = 1000 where id = ?", checking.getId());
+
+        assertEquals(0, new BigDecimal("75.25").compareTo(ledgerService.rebuildBalance(checking.getAccountNumber())));
+        assertEquals(0, new BigDecimal("75.25").compareTo(bankService.getAccount(checking.getAccountNumber()).getBalance().toBigDecimal()));
+    }
+
+    private User newUser() {
+        int n = USERS.incrementAndGet();
+        return bankService.registerUser("ledger" + n, "secret", "Ledger User " + n,
+                "1 Main St", "555-0100", "ledger" + n + "@bank.com");
+    }
+}
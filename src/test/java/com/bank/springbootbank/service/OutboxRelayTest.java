@@ -0,0 +1,113 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.repository.OutboxEventRepository;
+import com.bank.springbootbank.service.OutboxRelay.RelayReport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+class OutboxRelayTest {
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private JsonLinesOutboxSink sink;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void postingsArePublishedInOrderPerAccount() throws IOException {
+        // Account numbers repeat between runs on a fresh database, start from an empty file
+        drainAll();
+        Files.deleteIfExists(sink.getFile());
+
+        Account from = bankService.createAccount(newUser(), 1);
+        Account to = bankService.createAccount(newUser(), 1);
+        bankService.deposit(from.getAccountNumber(), new BigDecimal("100.00"));
+        bankService.transfer(from.getAccountNumber(), to.getAccountNumber(), new BigDecimal("30.00"));
+        bankService.withdraw(from.getAccountNumber(), new BigDecimal("10.00"));
+        assertThrows(RuntimeException.class, () -> bankService.withdraw(from.getAccountNumber(), new BigDecimal("1000.00")));
+
+        drainAll();
+        assertEquals(0, outboxRelay.pendingEvents());
+        assertTrue(outboxRelay.stats().eventsPerSecond() > 0);
+
+        List<JsonNode> events = Files.readAllLines(sink.getFile()).stream()
+                .map(this::parse)
+                .filter(event -> event.get("accountNumber").asText().equals(from.getAccountNumber()))
+                .toList();
+        assertEquals(List.of("DEPOSIT", "TRANSFER", "WITHDRAWAL"),
+                events.stream().map(event -> event.get("transactionType").asText()).toList(),
+                "one event per committed posting, rolled back ones never show up");
+        assertEquals(to.getAccountNumber(), events.get(1).get("counterpartyAccountNumber").asText());
+        assertEquals(0, new BigDecimal("30.00").compareTo(events.get(1).get("amount").decimalValue()));
+        assertTrue(events.get(0).get("eventId").asLong() < events.get(2).get("eventId").asLong());
+    }
+
+    @Test
+    void eventsStayQueuedWhileTheSinkFails() {
+        drainAll();
+        Account account = bankService.createAccount(newUser(), 1);
+        bankService.deposit(account.getAccountNumber(), new BigDecimal("5.00"));
+
+        OutboxRelay failing = new OutboxRelay(outboxEventRepository, events -> {
+            throw new IOException("sink unavailable");
+        }, transactionManager, 500, 20, Duration.ofSeconds(1), true);
+        RelayReport report = failing.drain();
+        assertTrue(report.failed());
+        assertEquals(0, report.delivered());
+        assertEquals(1, outboxRelay.pendingEvents(), "batch rolled back, nothing lost");
+
+        assertEquals(1, outboxRelay.drain().delivered());
+    }
+
+    private void drainAll() {
+        while (outboxRelay.drain().delivered() > 0) {
+            // keep going until the backlog of earlier tests is gone
+        }
+    }
+
+    private JsonNode parse(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private User newUser() {
+        int n = USERS.incrementAndGet();
+        return bankService.registerUser("outbox" + n, "secret", "Outbox User " + n,
+                "1 Main St", "555-0100", "outbox" + n + "@bank.com");
+    }
+}
@@ -0,0 +1,58 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+import com.bank.springbootbank.service.PasswordHasher.Verification;
+
+class PasswordHasherTest {
+
+    @Test
+    void verifiesHashesAndFlagsPlaintextAndOldCosts() {
+        try (PasswordHasher hasher = new PasswordHasher(5, 1, 16, Duration.ofSeconds(10));
+             PasswordHasher cheaper = new PasswordHasher(4, 1, 16, Duration.ofSeconds(10))) {
+            String hash = hasher.hash("secret");
+            assertTrue(PasswordHasher.isHash(hash));
+            assertEquals(Verification.MATCH, hasher.verify("secret", hash));
+            assertEquals(Verification.MISMATCH, hasher.verify("secreT", hash));
+
+            assertEquals(Verification.MATCH_NEEDS_REHASH, hasher.verify("secret", "secret"));
+            assertEquals(Verification.MISMATCH, hasher.verify("secret", "secret2"));
+            assertEquals(Verification.MATCH_NEEDS_REHASH, hasher.verify("secret", cheaper.hash("secret")));
+        }
+    }
+
+    @Test
+    void rejectsWorkBeyondTheQueue() {
+        try (PasswordHasher hasher = new PasswordHasher(12, 1, 1, Duration.ofMinutes(1));
+             ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            String hash = hasher.hash("secret");
+            List<CompletableFuture<Verification>> logins = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                logins.add(CompletableFuture.supplyAsync(() -> hasher.verify("secret", hash), callers));
+            }
+            long rejected = logins.stream().filter(login -> {
+                try {
+                    login.join();
+                    return false;
+                } catch (RuntimeException e) {
+                    return e.getCause() instanceof RejectedExecutionException;
+                }
+            }).count();
+            assertTrue(rejected > 0, "one running and one queued, the rest are turned away");
+            assertFalse(rejected == logins.size());
+        }
+    }
+}
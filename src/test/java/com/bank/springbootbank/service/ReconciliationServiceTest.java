@@ -0,0 +1,64 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.springbootbank.dto.BalanceCheck;
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.service.ReconciliationService.ReconciliationReport;
+
+@SpringBootTest
+class ReconciliationServiceTest {
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reportsDriftedAccountsOnly() {
+        Account healthy = bankService.createAccount(bankService.registerUser("reconciled", "secret", "Reconciled",
+                "1 Main St", "555-0100", "reconciled@bank.com"), 1);
+        Account drifted = bankService.createAccount(bankService.registerUser("drifted", "secret", "Drifted",
+                "1 Main St", "555-0100", "drifted@bank.com"), 1);
+        bankService.deposit(healthy.getAccountNumber(), new BigDecimal("200.00"));
+        bankService.deposit(drifted.getAccountNumber(), new BigDecimal("200.00"));
+        balanceSnapshotService.takeSnapshots(LocalDateTime.now());
+        bankService.transfer(healthy.getAccountNumber(), drifted.getAccountNumber(), new BigDecimal("25.00"));
+
+        // A balance changed behind the ledger's back
+        jdbcTemplate.update("update accounts set balance = balance + 1 where id = ?", drifted.getId());
+
+        ReconciliationReport report = reconciliationService.reconcile();
+        assertEquals(0, report.failedChunks());
+        assertTrue(report.accountsChecked() >= 2);
+        List<BalanceCheck> ours = report.drifts().stream()
+                .filter(check -> check.accountId().equals(healthy.getId()) || check.accountId().equals(drifted.getId()))
+                .toList();
+        assertEquals(1, ours.size());
+        assertEquals(drifted.getAccountNumber(), ours.get(0).accountNumber());
+        assertEquals(0, BigDecimal.ONE.compareTo(ours.get(0).difference()));
+
+        ledgerService.rebuildBalance(drifted.getAccountNumber());
+        assertTrue(reconciliationService.reconcile().drifts().stream()
+                .noneMatch(check -> check.accountId().equals(drifted.getId())));
+    }
+}
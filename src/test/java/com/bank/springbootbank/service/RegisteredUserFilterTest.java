@@ -0,0 +1,122 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.springbootbank.model.User;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+class RegisteredUserFilterTest {
+    @Autowired
+    private RegisteredUserFilter registeredUsers;
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private Statistics statistics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void buildFilter() {
+        registeredUsers.rebuild();
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndKeepsItsFalsePositiveRate() {
+        BloomFilter filter = BloomFilter.forCapacity(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(1, "user" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(1, "user" + i));
+            if (filter.mightContain(2, "user" + i)) {
+                falsePositives++; // same string, other kind
+            }
+        }
+        for (int i = 0; i < 90_000; i++) {
+            if (filter.mightContain(1, "other" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives in 100000 lookups");
+        assertEquals(0.01, filter.expectedFpp(), 0.002);
+        assertEquals(11_984, filter.memoryBytes());
+    }
+
+    @Test
+    void uniqueRegistrationsSkipTheExistenceQueries() {
+        assertTrue(registeredUsers.isReady());
+        statistics.clear();
+        bankService.registerUser("filtered", "secret", "Filtered", "1 Main St", "555-0100", "filtered@bank.com");
+        assertEquals(0, statistics.getQueryExecutionCount(), "no existsBy query");
+
+        assertTrue(registeredUsers.mightContainUsername("filtered"));
+        assertTrue(registeredUsers.mightContainEmail("filtered@bank.com"));
+        RuntimeException username = assertThrows(RuntimeException.class, () -> bankService.registerUser(
+                "filtered", "secret", "Filtered", "1 Main St", "555-0100", "filtered2@bank.com"));
+        assertEquals("Username already exists", username.getMessage());
+        RuntimeException email = assertThrows(RuntimeException.class, () -> bankService.registerUser(
+                "filtered2", "secret", "Filtered", "1 Main St", "555-0100", "filtered@bank.com"));
+        assertEquals("Email already registered", email.getMessage());
+    }
+
+    @Test
+    void usersTheFilterNeverSawAreStillRejectedByTheConstraints() {
+        // Registered by another node: in the database, not in this node's filter
+        jdbcTemplate.update("insert into users (id, username, password, full_name, address, phone_number, email, is_admin, created_at) "
+                + "values (900001, 'elsewhere', 'x', 'Elsewhere', '1 Main St', '555-0100', 'elsewhere@bank.com', false, localtimestamp)");
+        assertFalse(registeredUsers.mightContainUsername("elsewhere"));
+
+        RuntimeException username = assertThrows(RuntimeException.class, () -> bankService.registerUser(
+                "elsewhere", "secret", "Elsewhere", "1 Main St", "555-0100", "elsewhere2@bank.com"));
+        assertEquals("Username already exists", username.getMessage());
+        RuntimeException email = assertThrows(RuntimeException.class, () -> bankService.registerUser(
+                "elsewhere2", "secret", "Elsewhere", "1 Main St", "555-0100", "elsewhere@bank.com"));
+        assertEquals("Email already registered", email.getMessage());
+
+        registeredUsers.rebuild();
+        assertTrue(registeredUsers.mightContainUsername("elsewhere"));
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotReportedAsDuplicates() {
+        User incomplete = new User();
+        incomplete.setUsername("incomplete");
+        incomplete.setPassword("secret");
+        incomplete.setAddress("1 Main St");
+        incomplete.setPhoneNumber("555-0100");
+        incomplete.setEmail("incomplete@bank.com");
+        // No full name
+        assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(incomplete));
+    }
+
+    @Test
+    void exposesMemoryAndFalsePositiveRate() {
+        assertTrue(meterRegistry.get("bank.user-filter.memory").gauge().value() > 0);
+        assertTrue(meterRegistry.get("bank.user-filter.expected-fpp").gauge().value() < 0.01);
+        assertTrue(meterRegistry.get("bank.user-filter.entries").gauge().value() > 0);
+        meterRegistry.get("bank.user-filter.false-positives").counter();
+    }
+}
@@ -0,0 +1,98 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class SequenceBlockAccountNumberGeneratorTest {
+    private static final Logger log = LoggerFactory.getLogger(SequenceBlockAccountNumberGeneratorTest.class);
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 250_000;
+
+    @Test
+    void millionsOfConcurrentNumbersAreUniqueAndValid() throws Exception {
+        AtomicLong sequence = new AtomicLong();
+        AtomicLong sequenceCalls = new AtomicLong();
+        SequenceBlockAccountNumberGenerator generator = new SequenceBlockAccountNumberGenerator(() -> {
+            sequenceCalls.incrementAndGet();
+            return sequence.getAndAdd(1000);
+        }, 1000, true);
+
+        long[][] issued = new long[THREADS][PER_THREAD];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long[] mine = issued[t];
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < PER_THREAD; i++) {
+                    mine[i] = Long.parseLong(generator.nextAccountNumber());
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        long[] all = Arrays.stream(issued).flatMapToLong(Arrays::stream).sorted().toArray();
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "duplicate account number " + all[i]);
+        }
+        for (int i = 0; i < all.length; i += 997) {
+            assertTrue(generator.isValid(Long.toString(all[i])));
+        }
+        // One sequence round trip per block of 1000 (at most one wasted block per racing thread)
+        assertTrue(sequenceCalls.get() <= all.length / 1000 + THREADS);
+
+        log.info("Account numbers: {} unique in {} s ({} ids/s), {} sequence calls",
+                all.length, Math.round(seconds * 100) / 100.0, Math.round(all.length / seconds), sequenceCalls.get());
+    }
+
+    @Test
+    void checkDigitRejectsTyposBeforeAnyLookup() {
+        SequenceBlockAccountNumberGenerator generator = new SequenceBlockAccountNumberGenerator(() -> 7, 1000, false);
+        String number = generator.nextAccountNumber();
+        assertEquals(12, number.length());
+        assertTrue(generator.isValid(number));
+
+        char[] digits = number.toCharArray();
+        digits[5] = digits[5] == '9' ? '0' : (char) (digits[5] + 1);
+        assertFalse(generator.isValid(new String(digits)), "single digit typo");
+
+        char[] swapped = number.toCharArray();
+        int i = 6;
+        while (swapped[i] == swapped[i + 1]) {
+            i++;
+        }
+        char tmp = swapped[i];
+        swapped[i] = swapped[i + 1];
+        swapped[i + 1] = tmp;
+        if (Math.abs(swapped[i] - swapped[i + 1]) != 9) { // Luhn's one blind spot is swapping 0 and 9
+            assertFalse(generator.isValid(new String(swapped)), "swapped digits");
+        }
+
+        assertFalse(generator.isValid("1234567890"), "legacy numbers rejected when not accepted");
+    }
+}
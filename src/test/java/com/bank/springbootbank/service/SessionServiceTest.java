@@ -0,0 +1,146 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.service.SessionService.Role;
+import com.bank.springbootbank.service.SessionService.Session;
+import com.bank.springbootbank.service.SessionService.SessionToken;
+
+@SpringBootTest
+class SessionServiceTest {
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private SessionRevocationStore revocations;
+
+    @Autowired
+    private Statistics statistics;
+
+    @Test
+    void tokenIdentifiesTheUserAndTheirAccountsWithoutTheDatabase() {
+        User user = bankService.registerUser("session", "secret", "Session User", "1 Main St", "555-0100", "session@bank.com");
+        Account checking = bankService.createAccount(user, 1);
+        SessionToken login = sessionService.loginUser("session", "secret");
+
+        statistics.clear();
+        Session session = sessionService.authenticate(login.token()).orElseThrow();
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(Role.USER, session.role());
+        assertEquals(user.getId(), session.principalId());
+        assertTrue(session.owns(checking.getAccountNumber()));
+
+        sessionService.logout(session);
+        assertTrue(sessionService.authenticate(login.token()).isEmpty());
+    }
+
+    @Test
+    void aNodeWithoutTheSessionRebuildsItFromAValidToken() {
+        User user = bankService.registerUser("roaming", "secret", "Roaming User", "1 Main St", "555-0100", "roaming@bank.com");
+        Account checking = bankService.createAccount(user, 1);
+        SessionService issuing = node();
+        SessionService other = node(); // another instance, or this one after a restart
+        String token = issuing.loginUser("roaming", "secret").token();
+
+        Session session = other.authenticate(token).orElseThrow();
+        assertEquals(Role.USER, session.role());
+        assertEquals(user.getId(), session.principalId());
+        assertTrue(session.owns(checking.getAccountNumber()));
+        statistics.clear();
+        assertTrue(other.authenticate(token).isPresent());
+        assertEquals(0, statistics.getPrepareStatementCount(), "cached after the first rebuild");
+
+        Session admin = other.authenticate(issuing.loginAdmin("admin", "admin").token()).orElseThrow();
+        assertEquals(Role.ADMIN, admin.role());
+        assertEquals("admin", admin.username());
+
+        other.logout(session);
+        assertTrue(other.authenticate(token).isEmpty());
+    }
+
+    @Test
+    void logoutsAreNeverForgottenBeforeTheTokenExpires() {
+        bankService.registerUser("busy", "secret", "Busy User", "1 Main St", "555-0100", "busy@bank.com");
+        SessionService node = node(2);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            SessionToken login = node.loginUser("busy", "secret");
+            tokens.add(login.token());
+            node.logout(login.session());
+        }
+        for (String token : tokens) {
+            assertTrue(node.authenticate(token).isEmpty());
+        }
+    }
+
+    @Test
+    void logoutsAndDeletedUsersReachTheOtherNodes() {
+        User leaving = bankService.registerUser("leaving", "secret", "Leaving User", "1 Main St", "555-0100", "leaving@bank.com");
+        bankService.registerUser("staying", "secret", "Staying User", "1 Main St", "555-0100", "staying@bank.com");
+        SessionService issuing = node();
+        SessionService other = node();
+        SessionToken loggedOut = issuing.loginUser("staying", "secret");
+        String deleted = issuing.loginUser("leaving", "secret").token();
+        assertTrue(other.authenticate(loggedOut.token()).isPresent());
+        assertTrue(other.authenticate(deleted).isPresent());
+
+        issuing.logout(loggedOut.session());
+        adminService.deleteUser(leaving.getId());
+        other.syncRevocations();
+        assertTrue(other.authenticate(loggedOut.token()).isEmpty());
+        assertTrue(other.authenticate(deleted).isEmpty());
+
+        // A node started later loads the logout too
+        assertTrue(node().authenticate(loggedOut.token()).isEmpty());
+    }
+
+    @Test
+    void forgedAndMalformedTokensAreRejected() {
+        bankService.registerUser("forger", "secret", "Forger", "1 Main St", "555-0100", "forger@bank.com");
+        String token = sessionService.loginUser("forger", "secret").token();
+        assertTrue(sessionService.authenticate(token).isPresent());
+
+        // Same session id, but claiming to be an admin
+        String payload = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(payload.replace(":USER:", ":ADMIN:").getBytes())
+                + token.substring(token.indexOf('.'));
+        assertTrue(sessionService.authenticate(forged).isEmpty());
+        assertTrue(sessionService.authenticate(token + "x").isEmpty());
+        assertTrue(sessionService.authenticate("not-a-token").isEmpty());
+        assertTrue(sessionService.authenticate("%%%.%%%").isEmpty());
+
+        RuntimeException wrong = assertThrows(RuntimeException.class, () -> sessionService.loginAdmin("forger", "secret"));
+        assertEquals("Invalid username or password", wrong.getMessage());
+    }
+
+    private SessionService node() {
+        return node(1_000);
+    }
+
+    private SessionService node(long maxSessions) {
+        return new SessionService(bankService, adminService, revocations, SECRET, maxSessions, Duration.ofMinutes(30),
+                Duration.ofHours(12));
+    }
+}
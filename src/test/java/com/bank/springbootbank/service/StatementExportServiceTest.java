@@ -0,0 +1,137 @@
+package com.bank.springbootbank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.model.User;
+import com.bank.springbootbank.service.StatementExportService.ExportReport;
+import com.bank.springbootbank.service.StatementExportService.Format;
+
+@SpringBootTest
+class StatementExportServiceTest {
+    private static final LocalDate FROM = LocalDate.now().minusDays(1);
+    private static final LocalDate TO = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private StatementExportService statementExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void csvStatementsWalkBackFromTheBalanceAcrossPartitions() throws IOException {
+        User user = bankService.registerUser("statement-csv", "secret", "Doe, Jane", "1 Main St", "555-0100",
+                "statement-csv@bank.com");
+        Account checking = bankService.createAccount(user, 1);
+        Account savings = bankService.createAccount(user, 2);
+        Account idle = bankService.createAccount(user, 1);
+        bankService.deposit(checking.getAccountNumber(), new BigDecimal("500.00"));
+        bankService.deposit(checking.getAccountNumber(), new BigDecimal("40.00"));
+        bankService.transfer(checking.getAccountNumber(), savings.getAccountNumber(), new BigDecimal("120.00"));
+        bankService.withdraw(checking.getAccountNumber(), new BigDecimal("15.50"));
+
+        // Move the first deposit before the period and the withdrawal after it
+        moveLine(checking, "500.00", FROM.minusDays(3));
+        moveLine(checking, "-15.50", TO.plusDays(2));
+
+        ExportReport report = statementExportService.export(FROM, TO, Format.CSV, 2);
+        assertEquals(0, report.failedPartitions());
+        assertEquals(report.partitions(), report.files().size());
+        assertTrue(report.partitions() >= 2);
+        assertTrue(report.accounts() >= 3);
+
+        assertTrue(report.files().stream().noneMatch(file -> file.toString().endsWith(".part")));
+        List<String> all = readAll(report);
+        List<String> ours = linesOf(all, checking);
+        assertEquals(List.of(
+                "CLOSING|" + checking.getAccountNumber() + "|\"Doe, Jane\"|" + TO + " 00:00:00||420.00",
+                "LINE|TRANSFER|-120.00|420.00",
+                "LINE|DEPOSIT|40.00|540.00",
+                "OPENING|" + checking.getAccountNumber() + "|\"Doe, Jane\"|" + FROM + " 00:00:00||500.00"),
+                ours.stream().map(StatementExportServiceTest::summarize).toList());
+
+        List<String> idleLines = linesOf(all, idle);
+        assertEquals(2, idleLines.size());
+        assertTrue(idleLines.get(0).startsWith("CLOSING,"));
+        assertTrue(idleLines.get(1).startsWith("OPENING,"));
+        assertTrue(idleLines.get(1).endsWith(",0.00,"));
+    }
+
+    @Test
+    void fixedWidthRecordsAllHaveTheSameLength() throws IOException {
+        User user = bankService.registerUser("statement-fixed", "secret", "A Holder Name Much Longer Than Thirty Characters",
+                "1 Main St", "555-0100", "statement-fixed@bank.com");
+        Account checking = bankService.createAccount(user, 1);
+        bankService.deposit(checking.getAccountNumber(), new BigDecimal("1234567.89"));
+        bankService.withdraw(checking.getAccountNumber(), new BigDecimal("0.05"));
+
+        ExportReport report = statementExportService.export(FROM, TO, Format.FIXED_WIDTH);
+        assertEquals(0, report.failedPartitions());
+        List<String> all = readAll(report);
+        assertFalse(all.isEmpty());
+        int width = all.get(0).length();
+        assertTrue(all.stream().allMatch(line -> line.length() == width));
+
+        List<String> ours = all.stream().filter(line -> line.contains(checking.getAccountNumber())).toList();
+        assertEquals(4, ours.size());
+        assertTrue(ours.get(1).startsWith("LINE    " + checking.getAccountNumber()));
+        assertTrue(ours.get(1).contains(String.format("%-10s %18s %18s", "WITHDRAWAL", "-0.05", "1234567.84")));
+    }
+
+    @Test
+    void rejectsAnEmptyPeriod() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> statementExportService.export(TO, TO, Format.CSV));
+        assertEquals("Statement period must end after it starts", e.getMessage());
+    }
+
+    private void moveLine(Account account, String amount, LocalDate postedAt) {
+        assertEquals(1, jdbcTemplate.update("update ledger_entries set posted_at = ? where account_id = ? and amount = ?",
+                postedAt.atTime(12, 0), account.getId(), new BigDecimal(amount)));
+    }
+
+    private static List<String> readAll(ExportReport report) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Path file : report.files()) {
+            assertTrue(Files.exists(file));
+            try (Stream<String> fileLines = Files.lines(file, StandardCharsets.UTF_8)) {
+                fileLines.forEach(lines::add);
+            }
+        }
+        return lines;
+    }
+
+    private static List<String> linesOf(List<String> all, Account account) {
+        return all.stream().filter(line -> line.contains("," + account.getAccountNumber() + ",")).toList();
+    }
+
+    // Keeps the columns that matter: identity and period on opening/closing, type, amount and balance on lines
+    private static String summarize(String csv) {
+        String[] columns = csv.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
+        if (columns[0].equals("LINE")) {
+            return String.join("|", columns[0], columns[5], columns[6], columns[7]);
+        }
+        return String.join("|", columns[0], columns[1], columns[3], columns[4], columns[6], columns[7]);
+    }
+}
@@ -0,0 +1,251 @@
+package com.bank.springbootbank.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.bank.springbootbank.dto.AccountSummary;
+import com.bank.springbootbank.dto.AccountView;
+import com.bank.springbootbank.dto.AmountRequest;
+import com.bank.springbootbank.dto.ErrorResponse;
+import com.bank.springbootbank.dto.LoginRequest;
+import com.bank.springbootbank.dto.OpenAccountRequest;
+import com.bank.springbootbank.dto.RegistrationRequest;
+import com.bank.springbootbank.dto.SessionView;
+import com.bank.springbootbank.dto.TransactionPage;
+import com.bank.springbootbank.dto.TransactionView;
+import com.bank.springbootbank.dto.TransferRequest;
+import com.bank.springbootbank.dto.UserView;
+import com.bank.springbootbank.model.TransactionType;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AccountControllerTest {
+    private static final AtomicInteger USERS = new AtomicInteger();
+    private static final int CONCURRENT_DEPOSITS = 500;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    void accountLifecycleOverHttp() {
+        UserView user = registerUser();
+        TestRestTemplate customer = login(user);
+        AccountView checking = openAccount(customer, user, "CHECKING");
+        AccountView savings = openAccount(customer, user, "SAVINGS");
+        String number = checking.accountNumber();
+
+        ResponseEntity<TransactionView> deposit = customer.postForEntity("/api/accounts/{n}/deposits",
+                new AmountRequest(new BigDecimal("250.00")), TransactionView.class, number);
+        assertEquals(HttpStatus.CREATED, deposit.getStatusCode());
+        assertEquals(TransactionType.DEPOSIT, deposit.getBody().transactionType());
+        assertEquals(number, deposit.getBody().accountNumber());
+
+        customer.postForEntity("/api/accounts/{n}/withdrawals", new AmountRequest(new BigDecimal("50.00")),
+                TransactionView.class, number);
+        customer.postForEntity("/api/transfers", new TransferRequest(number, savings.accountNumber(), new BigDecimal("25.00")),
+                TransactionView.class);
+
+        AccountView reloaded = customer.getForObject("/api/accounts/{n}", AccountView.class, number);
+        assertEquals(0, new BigDecimal("175.00").compareTo(reloaded.balance()));
+
+        AccountView[] accounts = customer.getForObject("/api/users/{id}/accounts", AccountView[].class, user.id());
+        assertEquals(2, accounts.length);
+
+        TransactionPage firstPage = customer.getForObject("/api/accounts/{n}/transactions?pageSize=2",
+                TransactionPage.class, number);
+        assertEquals(2, firstPage.transactions().size());
+        assertEquals(TransactionType.TRANSFER, firstPage.transactions().get(0).transactionType());
+        TransactionPage lastPage = customer.getForObject("/api/accounts/{n}/transactions?pageSize=2&pageToken={t}",
+                TransactionPage.class, number, firstPage.nextPageToken());
+        assertEquals(1, lastPage.transactions().size());
+        assertEquals(null, lastPage.nextPageToken());
+
+        AccountSummary[] all = loginAdmin().getForObject("/api/admin/accounts", AccountSummary[].class);
+        assertTrue(List.of(all).stream().anyMatch(a -> a.accountNumber().equals(number)
+                && a.ownerUsername().equals(user.username())));
+    }
+
+    @Test
+    void businessErrorsComeBackAsJson() {
+        UserView user = registerUser();
+        TestRestTemplate customer = login(user);
+        AccountView checking = openAccount(customer, user, "CHECKING");
+
+        ResponseEntity<ErrorResponse> overdraft = customer.postForEntity("/api/accounts/{n}/withdrawals",
+                new AmountRequest(BigDecimal.TEN), ErrorResponse.class, checking.accountNumber());
+        assertEquals(HttpStatus.BAD_REQUEST, overdraft.getStatusCode());
+        assertEquals("Insufficient funds", overdraft.getBody().message());
+
+        ResponseEntity<ErrorResponse> negative = customer.postForEntity("/api/accounts/{n}/deposits",
+                new AmountRequest(new BigDecimal("-5")), ErrorResponse.class, checking.accountNumber());
+        assertEquals(HttpStatus.BAD_REQUEST, negative.getStatusCode());
+        assertEquals("Amount must be greater than zero", negative.getBody().message());
+
+        ResponseEntity<ErrorResponse> missing = customer.getForEntity("/api/accounts/{n}", ErrorResponse.class, "0000000000");
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+        assertEquals("Account not found", missing.getBody().message());
+
+        ResponseEntity<ErrorResponse> noUser = customer.getForEntity("/api/users/{id}/accounts", ErrorResponse.class, -1);
+        assertEquals(HttpStatus.NOT_FOUND, noUser.getStatusCode());
+
+        // Not a duplicate and not an outage, the database simply refused the row
+        ResponseEntity<ErrorResponse> incomplete = rest.postForEntity("/api/users", new RegistrationRequest("incomplete-api",
+                "secret", null, "1 Main St", "555-0100", "incomplete-api@bank.com"), ErrorResponse.class);
+        assertEquals(HttpStatus.BAD_REQUEST, incomplete.getStatusCode());
+        assertEquals("Missing or invalid fields", incomplete.getBody().message());
+    }
+
+    @Test
+    void callersOnlyReachTheirOwnAccounts() {
+        UserView owner = registerUser();
+        AccountView checking = openAccount(login(owner), owner, "CHECKING");
+        UserView other = registerUser();
+        TestRestTemplate stranger = login(other);
+
+        ResponseEntity<ErrorResponse> anonymous = rest.getForEntity("/api/accounts/{n}", ErrorResponse.class,
+                checking.accountNumber());
+        assertEquals(HttpStatus.UNAUTHORIZED, anonymous.getStatusCode());
+
+        ResponseEntity<ErrorResponse> notTheirs = stranger.getForEntity("/api/accounts/{n}", ErrorResponse.class,
+                checking.accountNumber());
+        assertEquals(HttpStatus.NOT_FOUND, notTheirs.getStatusCode());
+        ResponseEntity<ErrorResponse> notTheirUser = stranger.getForEntity("/api/users/{id}/accounts",
+                ErrorResponse.class, owner.id());
+        assertEquals(HttpStatus.NOT_FOUND, notTheirUser.getStatusCode());
+        ResponseEntity<ErrorResponse> notAdmin = stranger.getForEntity("/api/admin/users", ErrorResponse.class);
+        assertEquals(HttpStatus.FORBIDDEN, notAdmin.getStatusCode());
+
+        ResponseEntity<ErrorResponse> badPassword = rest.postForEntity("/api/sessions",
+                new LoginRequest(other.username(), "wrong"), ErrorResponse.class);
+        assertEquals(HttpStatus.BAD_REQUEST, badPassword.getStatusCode());
+        assertEquals("Invalid username or password", badPassword.getBody().message());
+
+        assertEquals(HttpStatus.NO_CONTENT, stranger.exchange("/api/sessions", HttpMethod.DELETE, null, Void.class)
+                .getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, stranger.getForEntity("/api/users/{id}/accounts", ErrorResponse.class,
+                other.id()).getStatusCode());
+    }
+
+    @Test
+    void pathParametersAndUnusualSpellingsDontGetPastTheSessionCheck() {
+        UserView owner = registerUser();
+        TestRestTemplate customer = login(owner);
+        AccountView checking = openAccount(customer, owner, "CHECKING");
+
+        for (String path : List.of("/api/admin;x=1/users", "/api/admin/users;x=1", "/api;x/admin/users",
+                "//api/admin/users", "/api//admin/users", "/api/%61dmin/users", "/%61pi/admin/users")) {
+            assertEquals(HttpStatus.UNAUTHORIZED, rest.exchange(uri(path), HttpMethod.GET, null, String.class)
+                    .getStatusCode(), path);
+            assertEquals(HttpStatus.FORBIDDEN, customer.exchange(uri(path), HttpMethod.GET, null, String.class)
+                    .getStatusCode(), path);
+        }
+        for (String path : List.of("/api/admin;x/users/" + owner.id(), "/api;x/admin/users/" + owner.id(),
+                "//api/admin/users/" + owner.id())) {
+            assertEquals(HttpStatus.FORBIDDEN, customer.exchange(uri(path), HttpMethod.DELETE, null, String.class)
+                    .getStatusCode(), path);
+        }
+        for (String path : List.of("/api/accounts;x/" + checking.accountNumber(), "/api;x/accounts/" + checking.accountNumber(),
+                "//api/accounts/" + checking.accountNumber(), "/%61pi/accounts/" + checking.accountNumber())) {
+            assertEquals(HttpStatus.UNAUTHORIZED, rest.exchange(uri(path), HttpMethod.GET, null, String.class)
+                    .getStatusCode(), path);
+        }
+        assertEquals(HttpStatus.OK, customer.getForEntity("/api/users/{id}/accounts", AccountView[].class, owner.id())
+                .getStatusCode());
+    }
+
+    @Test
+    void retriedDepositWithTheSameKeyPostsOnce() {
+        UserView user = registerUser();
+        TestRestTemplate customer = login(user);
+        AccountView checking = openAccount(customer, user, "CHECKING");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", "retry-" + checking.accountNumber());
+        HttpEntity<AmountRequest> request = new HttpEntity<>(new AmountRequest(new BigDecimal("30.00")), headers);
+
+        TransactionView first = customer.postForObject("/api/accounts/{n}/deposits", request, TransactionView.class,
+                checking.accountNumber());
+        TransactionView retried = customer.postForObject("/api/accounts/{n}/deposits", request, TransactionView.class,
+                checking.accountNumber());
+
+        assertEquals(first.id(), retried.id());
+        AccountView reloaded = customer.getForObject("/api/accounts/{n}", AccountView.class, checking.accountNumber());
+        assertEquals(0, new BigDecimal("30").compareTo(reloaded.balance()));
+    }
+
+    @Test
+    void concurrentDepositsOverHttpAreAllApplied() throws Exception {
+        UserView user = registerUser();
+        TestRestTemplate customer = login(user);
+        AccountView checking = openAccount(customer, user, "CHECKING");
+
+        List<Future<ResponseEntity<TransactionView>>> responses = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_DEPOSITS; i++) {
+                responses.add(clients.submit(() -> customer.postForEntity("/api/accounts/{n}/deposits",
+                        new AmountRequest(BigDecimal.ONE), TransactionView.class, checking.accountNumber())));
+            }
+        }
+        for (Future<ResponseEntity<TransactionView>> response : responses) {
+            assertEquals(HttpStatus.CREATED, response.get().getStatusCode());
+        }
+
+        AccountView reloaded = customer.getForObject("/api/accounts/{n}", AccountView.class, checking.accountNumber());
+        assertEquals(0, BigDecimal.valueOf(CONCURRENT_DEPOSITS).compareTo(reloaded.balance()));
+    }
+
+    // Sent as is, a URI template would encode the % of an escape again
+    private URI uri(String path) {
+        return URI.create(rest.getRootUri() + path);
+    }
+
+    private UserView registerUser() {
+        int n = USERS.incrementAndGet();
+        ResponseEntity<UserView> response = rest.postForEntity("/api/users", new RegistrationRequest("api" + n, "secret",
+                "Api User " + n, "1 Main St", "555-0100", "api" + n + "@bank.com"), UserView.class);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertNotNull(response.getBody().id());
+        return response.getBody();
+    }
+
+    private TestRestTemplate login(UserView user) {
+        return withSession(rest.postForObject("/api/sessions", new LoginRequest(user.username(), "secret"),
+                SessionView.class));
+    }
+
+    // The default admin DataInitializer creates
+    private TestRestTemplate loginAdmin() {
+        return withSession(rest.postForObject("/api/admin/sessions", new LoginRequest("admin", "admin"),
+                SessionView.class));
+    }
+
+    private TestRestTemplate withSession(SessionView session) {
+        return new TestRestTemplate(new RestTemplateBuilder()
+                .rootUri(rest.getRootUri())
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + session.token()));
+    }
+
+    private AccountView openAccount(TestRestTemplate customer, UserView user, String accountType) {
+        return customer.postForObject("/api/users/{id}/accounts", new OpenAccountRequest(accountType),
+                AccountView.class, user.id());
+    }
+}
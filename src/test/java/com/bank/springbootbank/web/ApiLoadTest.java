@@ -0,0 +1,102 @@
+package com.bank.springbootbank.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bank.springbootbank.service.BankService;
+import com.bank.springbootbank.service.SessionService;
+
+/**
+ * Thousands of requests in flight at once. Each one parks for a second, which with a pool of
+ * 200 platform threads (Tomcat's default) would take ten rounds, on virtual threads they all wait together.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApiLoadTest {
+    private static final Logger log = LoggerFactory.getLogger(ApiLoadTest.class);
+    private static final int REQUESTS = 2_000;
+    private static final Duration PARK = Duration.ofSeconds(1);
+
+    @TestConfiguration
+    static class SlowEndpointConfig {
+        @Bean
+        SlowController slowController() {
+            return new SlowController();
+        }
+    }
+
+    // Stands in for a request stuck on a row lock or a remote call
+    @RestController
+    static class SlowController {
+        @GetMapping("/api/test/slow")
+        String slow() throws InterruptedException {
+            Thread.sleep(PARK);
+            return "ok";
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Test
+    void thousandsOfRequestsInFlightWithoutExhaustingThreads() {
+        bankService.registerUser("load", "secret", "Load User", "1 Main St", "555-0100", "load@bank.com");
+        String token = sessionService.loginUser("load", "secret").token();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/test/slow"))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(60))
+                .build();
+
+        long started = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(REQUESTS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).build()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.join().statusCode());
+        }
+        assertEquals(0, concurrencyLimitFilter.rejected());
+        assertTrue(concurrencyLimitFilter.peakInFlight() > 200,
+                "peak in flight " + concurrencyLimitFilter.peakInFlight());
+        // 200 platform threads would need ten rounds of PARK
+        assertTrue(seconds < 10 * PARK.toSeconds(), "took " + seconds + " s");
+        log.info("{} requests parked {} each: {} s, peak {} in flight",
+                REQUESTS, PARK, Math.round(seconds * 10) / 10.0, concurrencyLimitFilter.peakInFlight());
+    }
+}
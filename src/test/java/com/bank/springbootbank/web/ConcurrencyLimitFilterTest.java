@@ -0,0 +1,76 @@
+package com.bank.springbootbank.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class ConcurrencyLimitFilterTest {
+
+    @Test
+    void requestsOverTheLimitGet503() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(10));
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServlet blocking = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(apiRequest(), first, new MockFilterChain(blocking));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entered.await();
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(apiRequest(), second, new MockFilterChain());
+        assertEquals(503, second.getStatus());
+        assertEquals("1", second.getHeader("Retry-After"));
+
+        // Spellings that still reach an /api handler are limited too
+        for (String uri : new String[] {"//api/accounts/1234567890", "/api;x=1/accounts/1234567890"}) {
+            MockHttpServletResponse spelled = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", uri), spelled, new MockFilterChain());
+            assertEquals(503, spelled.getStatus(), uri);
+        }
+
+        // Only /api is limited
+        MockHttpServletResponse other = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/error"), other, new MockFilterChain());
+        assertEquals(200, other.getStatus());
+
+        release.countDown();
+        holder.join();
+        assertEquals(200, first.getStatus());
+        assertEquals(3, filter.rejected());
+
+        MockHttpServletResponse third = new MockHttpServletResponse();
+        filter.doFilter(apiRequest(), third, new MockFilterChain());
+        assertEquals(200, third.getStatus());
+    }
+
+    private static MockHttpServletRequest apiRequest() {
+        return new MockHttpServletRequest("GET", "/api/accounts/1234567890");
+    }
+}
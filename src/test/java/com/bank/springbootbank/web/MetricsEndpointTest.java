@@ -0,0 +1,60 @@
+package com.bank.springbootbank.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.bank.springbootbank.model.Account;
+import com.bank.springbootbank.service.BankService;
+
+// Tests get no metrics export unless asked for it
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MetricsEndpointTest {
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private BankService bankService;
+
+    @Test
+    void prometheusEndpointExposesBankAndPlatformMeters() {
+        Account checking = bankService.createAccount(bankService.registerUser("metered", "secret", "Metered",
+                "1 Main St", "555-0100", "metered@bank.com"), 1);
+        bankService.deposit(checking.getAccountNumber(), new BigDecimal("10.00"));
+        bankService.getAccount(checking.getAccountNumber());
+        bankService.getAccount(checking.getAccountNumber());
+        assertThrows(RuntimeException.class,
+                () -> bankService.withdraw(checking.getAccountNumber(), new BigDecimal("20.00")));
+
+        ResponseEntity<String> scrape = rest.getForEntity("/actuator/prometheus", String.class);
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+        String body = scrape.getBody();
+
+        assertContains(body, "bank_operations_seconds_bucket{class=\"com.bank.springbootbank.service.BankService\"");
+        assertContains(body, "method=\"deposit\"");
+        assertContains(body, "bank_insufficient_funds_total{operation=\"withdrawal\"}");
+        assertContains(body, "bank_transfer_lock_retries_total");
+        assertContains(body, "cache_gets_total{cache=\"accounts.by-number\"");
+        assertContains(body, "cache_gets_total{cache=\"idempotency.keys\"");
+        assertContains(body, "spring_data_repository_invocations_seconds");
+        assertContains(body, "hikaricp_connections_pending");
+        assertContains(body, "hibernate_query_executions_total");
+        assertContains(body, "bank_outbox_pending");
+        assertContains(body, "bank_web_rejected_total");
+    }
+
+    private static void assertContains(String body, String expected) {
+        assertTrue(body.contains(expected), () -> "missing " + expected);
+    }
+}
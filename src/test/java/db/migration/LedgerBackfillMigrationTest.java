@@ -0,0 +1,57 @@
+package db.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Migrates a database holding pre-ledger rows and checks the backfilled ledger.
+ */
+class LedgerBackfillMigrationTest {
+
+    @Test
+    void existingTransactionsAndBalancesAreCarriedIntoTheLedger() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:ledger_backfill;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        Flyway.configure().dataSource(dataSource).target("5").load().migrate();
+        jdbc.update("insert into users (id, username, password, full_name, address, phone_number, email, is_admin, created_at) " +
+                "values (1, 'legacy', 'x', 'Legacy User', 'here', '555', 'legacy@bank.com', false, localtimestamp)");
+        for (long id = 1; id <= 2; id++) {
+            // account 1 sent 30 to account 2 before the ledger existed, account 2's side was never recorded
+            jdbc.update("insert into accounts (id, account_number, account_type, balance, account_holder_name, created_at, updated_at, user_id) " +
+                    "values (?, ?, 'CHECKING', ?, 'Legacy User', localtimestamp, localtimestamp, 1)",
+                    id, "100000000" + id, id == 1 ? 70 : 30);
+        }
+        jdbc.update("insert into transactions (id, account_id, transaction_type, amount, transaction_date) " +
+                "values (1, 1, 'DEPOSIT', 100, localtimestamp)");
+        jdbc.update("insert into transactions (id, account_id, transaction_type, amount, transaction_date) " +
+                "values (2, 1, 'TRANSFER', 30, localtimestamp)");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        assertEquals(3, jdbc.queryForObject("select type_code from transactions where id = 2", Integer.class));
+        assertEquals(0, jdbc.queryForObject("select count(*) from (select transaction_id from ledger_entries " +
+                "group by transaction_id having sum(amount) <> 0) unbalanced", Integer.class));
+        for (long id = 1; id <= 2; id++) {
+            BigDecimal balance = jdbc.queryForObject("select balance from accounts where id = ?", BigDecimal.class, id);
+            BigDecimal ledger = jdbc.queryForObject("select sum(amount) from ledger_entries where account_id = ?",
+                    BigDecimal.class, id);
+            assertEquals(0, balance.compareTo(ledger), "account " + id);
+        }
+        // Account 2's missing credit became an opening adjustment
+        assertEquals(1, jdbc.queryForObject("select count(*) from transactions where account_id = 2 and type_code = 5",
+                Integer.class));
+
+        Long next = jdbc.queryForObject("select next value for ledger_entries_seq", Long.class);
+        Long maxId = jdbc.queryForObject("select max(id) from ledger_entries", Long.class);
+        assertTrue(next > maxId + 1, "sequence " + next + " must be past " + maxId);
+    }
+}